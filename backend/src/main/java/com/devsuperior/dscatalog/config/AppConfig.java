@@ -1,15 +1,36 @@
 package com.devsuperior.dscatalog.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 public class AppConfig {
 
+    @Value("${catalog.security.hashing.pool-size}")
+    private int hashingPoolSize;
+
+    @Value("${catalog.security.hashing.queue-capacity}")
+    private int hashingQueueCapacity;
+
+    @Value("${catalog.security.hashing.timeout-ms}")
+    private long hashingTimeoutMs;
+
+    @Value("${catalog.security.hashing.retry-after-seconds}")
+    private long hashingRetryAfterSeconds;
+
+    // pool-size 0: metade dos núcleos, para que logins não tomem a CPU inteira
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int poolSize = hashingPoolSize > 0
+                ? hashingPoolSize
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, hashingQueueCapacity,
+                Duration.ofMillis(hashingTimeoutMs), hashingRetryAfterSeconds, meterRegistry);
     }
 }
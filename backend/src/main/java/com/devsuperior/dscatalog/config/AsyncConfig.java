@@ -0,0 +1,59 @@
+package com.devsuperior.dscatalog.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * O @Async padrão usa o applicationTaskExecutor do Spring Boot, que roda em threads virtuais quando
+ * spring.threads.virtual.enabled=true. O envio de email fica em um pool próprio de threads de plataforma:
+ * o SMTPTransport do Jakarta Mail faz I/O dentro de métodos synchronized, o que prenderia a thread
+ * carregadora de uma thread virtual durante todo o envio.
+ * <p>
+ * Com um segundo executor no contexto o Spring Boot deixa de criar o applicationTaskExecutor,
+ * por isso ele é declarado aqui com os mesmos builders e condições da autoconfiguração.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Value("${catalog.mail.executor.pool-size}")
+    private int mailPoolSize;
+
+    @Value("${catalog.mail.executor.queue-capacity}")
+    private int mailQueueCapacity;
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor applicationTaskExecutorVirtualThreads(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor mailTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(mailPoolSize);
+        executor.setMaxPoolSize(mailPoolSize);
+        executor.setQueueCapacity(mailQueueCapacity);
+        executor.setThreadNamePrefix("mail-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
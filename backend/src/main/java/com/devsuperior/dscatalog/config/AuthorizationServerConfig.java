@@ -7,11 +7,14 @@ import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -21,7 +24,7 @@ import org.springframework.security.oauth2.core.OAuth2Token;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationConsentService;
-import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
@@ -36,14 +39,17 @@ import org.springframework.security.oauth2.server.authorization.settings.OAuth2T
 import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
 import org.springframework.security.oauth2.server.authorization.token.*;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
 
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Configuration
 public class AuthorizationServerConfig {
@@ -57,6 +63,9 @@ public class AuthorizationServerConfig {
 	@Value("${security.jwt.duration}")
 	private Integer jwtDurationSeconds;
 
+	@Value("${catalog.oauth2.authorizations.max-size}")
+	private long authorizationsMaxSize;
+
 	@Autowired
 	private PasswordEncoder passwordEncoder;
 
@@ -65,7 +74,7 @@ public class AuthorizationServerConfig {
 
 	@Bean
 	@Order(2)
-	SecurityFilterChain asSecurityFilterChain(HttpSecurity http) throws Exception {
+	SecurityFilterChain asSecurityFilterChain(HttpSecurity http, OAuth2AuthorizationService authorizationService) throws Exception {
 
 		http.securityMatcher("oauth2/**", "/.well-known/**").with(OAuth2AuthorizationServerConfigurer.authorizationServer(), Customizer.withDefaults());
 
@@ -73,17 +82,37 @@ public class AuthorizationServerConfig {
 		http.getConfigurer(OAuth2AuthorizationServerConfigurer.class)
 				.tokenEndpoint(tokenEndpoint -> tokenEndpoint
 						.accessTokenRequestConverter(new CustomPasswordAuthenticationConverter())
-						.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService(), tokenGenerator(), userDetailsService, passwordEncoder)));
+						.authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService, tokenGenerator(), userDetailsService, passwordEncoder)));
 
 		http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()));
 		// @formatter:on
 
+		// Pool de BCrypt cheio (segredo do cliente ou senha do usuário): 503 com Retry-After
+		http.addFilterBefore(new PasswordHashingBusyFilter(), SecurityContextHolderFilter.class);
+
 		return http.build();
 	}
 
+	// Cada login gera uma autorização; o armazenamento é escolhido por catalog.oauth2.authorization-store
+	@Bean
+	@ConditionalOnProperty(name = "catalog.oauth2.authorization-store", havingValue = "memory", matchIfMissing = true)
+	public OAuth2AuthorizationService authorizationService(MeterRegistry meterRegistry) {
+		return new BoundedOAuth2AuthorizationService(authorizationsMaxSize, Duration.ofSeconds(jwtDurationSeconds), meterRegistry);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "catalog.oauth2.authorization-store", havingValue = "none")
+	public OAuth2AuthorizationService selfContainedAuthorizationService(MeterRegistry meterRegistry) {
+		return new SelfContainedTokenAuthorizationService(
+				new BoundedOAuth2AuthorizationService(authorizationsMaxSize, Duration.ofSeconds(jwtDurationSeconds), meterRegistry));
+	}
+
+	// Compartilhado entre as instâncias; as vencidas são apagadas pelo JdbcOAuth2AuthorizationPurger
 	@Bean
-	public OAuth2AuthorizationService authorizationService() {
-		return new InMemoryOAuth2AuthorizationService();
+	@ConditionalOnProperty(name = "catalog.oauth2.authorization-store", havingValue = "jdbc")
+	public OAuth2AuthorizationService jdbcAuthorizationService(JdbcTemplate jdbcTemplate,
+			RegisteredClientRepository registeredClientRepository) {
+		return new JdbcOAuth2AuthorizationService(jdbcTemplate, registeredClientRepository);
 	}
 
 	@Bean
@@ -94,8 +123,9 @@ public class AuthorizationServerConfig {
 	@Bean
 	public RegisteredClientRepository registeredClientRepository() {
 		// @formatter:off
+		// Id fixo: o armazenamento JDBC grava registered_client_id e o confere nas outras instâncias
 		RegisteredClient registeredClient = RegisteredClient
-			.withId(UUID.randomUUID().toString())
+			.withId(clientId)
 			.clientId(clientId)
 			.clientSecret(passwordEncoder.encode(clientSecret))
 			.scope("read")
@@ -143,7 +173,8 @@ public class AuthorizationServerConfig {
 		return context -> {
 			OAuth2ClientAuthenticationToken principal = context.getPrincipal();
 			CustomUserAuthorities user = (CustomUserAuthorities) principal.getDetails();
-			List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority()).toList();
+			// ArrayList: as claims são serializadas junto com a autorização no armazenamento JDBC
+			List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority()).collect(Collectors.toCollection(ArrayList::new));
 			if (context.getTokenType().getValue().equals("access_token")) {
 				// @formatter:off
 				context.getClaims()
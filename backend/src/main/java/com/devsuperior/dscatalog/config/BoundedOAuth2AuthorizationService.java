@@ -0,0 +1,199 @@
+package com.devsuperior.dscatalog.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.core.AbstractOAuth2Token;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Armazena as autorizações em memória com limite de tamanho, e cada uma expira junto com o último
+ * token que ela carrega (ou após defaultTtl, enquanto ainda não tem token). A busca por token usa um
+ * índice próprio, também limitado, em vez de percorrer todas as autorizações como o
+ * InMemoryOAuth2AuthorizationService. Uma entrada do índice que sobreviva à autorização é ignorada.
+ * Indexa o state e os tokens que este servidor emite: código de autorização, acesso e refresh.
+ * Uma autorização descartada pelo limite só deixa de aparecer para introspecção e revogação;
+ * o JWT continua válido no resource server até expirar.
+ */
+public class BoundedOAuth2AuthorizationService implements OAuth2AuthorizationService {
+
+    private static final OAuth2TokenType STATE_TOKEN_TYPE = new OAuth2TokenType(OAuth2ParameterNames.STATE);
+    private static final OAuth2TokenType CODE_TOKEN_TYPE = new OAuth2TokenType(OAuth2ParameterNames.CODE);
+
+    private final Duration defaultTtl;
+    private final Ticker ticker;
+    private final Cache<String, Entry> authorizations;
+    private final Cache<String, TokenRef> tokens;
+
+    public BoundedOAuth2AuthorizationService(long maxSize, Duration defaultTtl, MeterRegistry meterRegistry) {
+        this(maxSize, defaultTtl, Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, authorizations, "oauth2Authorizations");
+    }
+
+    BoundedOAuth2AuthorizationService(long maxSize, Duration defaultTtl, Ticker ticker) {
+        Assert.isTrue(maxSize > 0, "maxSize must be greater than 0");
+        this.defaultTtl = defaultTtl;
+        this.ticker = ticker;
+        this.authorizations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpiresAt<Entry>())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        // Cada autorização pode ter mais de um token indexado
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize * 2)
+                .expireAfter(new ExpiresAt<TokenRef>())
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public void save(OAuth2Authorization authorization) {
+        Assert.notNull(authorization, "authorization cannot be null");
+        long expiresAt = expiresAt(authorization);
+        Entry previous = authorizations.asMap().put(authorization.getId(), new Entry(authorization, expiresAt));
+        if (previous != null) {
+            tokens.invalidateAll(tokenValues(previous.authorization()));
+        }
+        for (TokenRef ref : tokenRefs(authorization, expiresAt)) {
+            tokens.put(ref.value(), ref);
+        }
+    }
+
+    @Override
+    public void remove(OAuth2Authorization authorization) {
+        Assert.notNull(authorization, "authorization cannot be null");
+        Entry removed = authorizations.asMap().remove(authorization.getId());
+        tokens.invalidateAll(tokenValues(removed != null ? removed.authorization() : authorization));
+    }
+
+    @Override
+    public OAuth2Authorization findById(String id) {
+        Assert.hasText(id, "id cannot be empty");
+        Entry entry = authorizations.getIfPresent(id);
+        return entry != null ? entry.authorization() : null;
+    }
+
+    @Override
+    public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
+        Assert.hasText(token, "token cannot be empty");
+        TokenRef ref = tokens.getIfPresent(token);
+        if (ref == null || (tokenType != null && !tokenType.equals(ref.type()))) {
+            return null;
+        }
+        OAuth2Authorization authorization = findById(ref.authorizationId());
+        return authorization != null && token.equals(tokenValue(authorization, ref.type())) ? authorization : null;
+    }
+
+    public long size() {
+        authorizations.cleanUp();
+        return authorizations.estimatedSize();
+    }
+
+    private long expiresAt(OAuth2Authorization authorization) {
+        Instant latest = null;
+        for (OAuth2Authorization.Token<?> token : issuedTokens(authorization)) {
+            Instant tokenExpiresAt = token.getToken().getExpiresAt();
+            if (tokenExpiresAt != null && (latest == null || tokenExpiresAt.isAfter(latest))) {
+                latest = tokenExpiresAt;
+            }
+        }
+        long ttlNanos = latest != null
+                ? Duration.between(Instant.now(), latest).toNanos()
+                : defaultTtl.toNanos();
+        return ticker.read() + Math.max(0, ttlNanos);
+    }
+
+    private static List<OAuth2Authorization.Token<?>> issuedTokens(OAuth2Authorization authorization) {
+        List<OAuth2Authorization.Token<?>> result = new ArrayList<>(3);
+        addIfPresent(result, authorization.getToken(OAuth2AuthorizationCode.class));
+        addIfPresent(result, authorization.getAccessToken());
+        addIfPresent(result, authorization.getRefreshToken());
+        return result;
+    }
+
+    private static void addIfPresent(List<OAuth2Authorization.Token<?>> list, OAuth2Authorization.Token<?> token) {
+        if (token != null) {
+            list.add(token);
+        }
+    }
+
+    private static List<TokenRef> tokenRefs(OAuth2Authorization authorization, long expiresAt) {
+        List<TokenRef> refs = new ArrayList<>(4);
+        for (OAuth2TokenType type : List.of(STATE_TOKEN_TYPE, CODE_TOKEN_TYPE,
+                OAuth2TokenType.ACCESS_TOKEN, OAuth2TokenType.REFRESH_TOKEN)) {
+            String value = tokenValue(authorization, type);
+            if (value != null) {
+                refs.add(new TokenRef(value, type, authorization.getId(), expiresAt));
+            }
+        }
+        return refs;
+    }
+
+    private static List<String> tokenValues(OAuth2Authorization authorization) {
+        return tokenRefs(authorization, 0).stream().map(TokenRef::value).toList();
+    }
+
+    private static String tokenValue(OAuth2Authorization authorization, OAuth2TokenType type) {
+        if (STATE_TOKEN_TYPE.equals(type)) {
+            return authorization.getAttribute(OAuth2ParameterNames.STATE);
+        }
+        OAuth2Authorization.Token<? extends AbstractOAuth2Token> token = null;
+        if (CODE_TOKEN_TYPE.equals(type)) {
+            token = authorization.getToken(OAuth2AuthorizationCode.class);
+        }
+        else if (OAuth2TokenType.ACCESS_TOKEN.equals(type)) {
+            token = authorization.getToken(OAuth2AccessToken.class);
+        }
+        else if (OAuth2TokenType.REFRESH_TOKEN.equals(type)) {
+            token = authorization.getToken(OAuth2RefreshToken.class);
+        }
+        return token != null ? token.getToken().getTokenValue() : null;
+    }
+
+    private interface Expiring {
+        long expiresAt();
+    }
+
+    private record Entry(OAuth2Authorization authorization, long expiresAt) implements Expiring {
+    }
+
+    private record TokenRef(String value, OAuth2TokenType type, String authorizationId, long expiresAt)
+            implements Expiring {
+    }
+
+    // expiresAt é um instante do ticker; a duração restante é recalculada a cada escrita
+    private static class ExpiresAt<V extends Expiring> implements Expiry<String, V> {
+
+        @Override
+        public long expireAfterCreate(String key, V value, long currentTime) {
+            return Math.max(0, value.expiresAt() - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+            return Math.max(0, value.expiresAt() - currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
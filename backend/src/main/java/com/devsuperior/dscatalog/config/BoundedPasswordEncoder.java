@@ -0,0 +1,112 @@
+package com.devsuperior.dscatalog.config;
+
+import com.devsuperior.dscatalog.services.exceptions.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Roda a verificação de senha (BCrypt) em um pool próprio, com fila limitada, para que uma rajada de logins
+ * ocupe no máximo poolSize núcleos e deixe o restante para o catálogo. Com a fila cheia, ou se a verificação
+ * não começar e terminar dentro de timeout, lança PasswordHashingBusyException, que o /oauth2/token devolve
+ * como 503 com Retry-After. O encode continua na thread chamadora: só acontece no cadastro e na troca de senha.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final long retryAfterSeconds;
+
+    private final Timer queueWait;
+    private final Timer hashTime;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, Duration timeout,
+                                  long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueWait = meterRegistry.timer("catalog.security.hashing.queue-wait");
+        this.hashTime = meterRegistry.timer("catalog.security.hashing.hash-time");
+        this.rejected = meterRegistry.counter("catalog.security.hashing.rejected");
+        meterRegistry.gauge("catalog.security.hashing.queue-size", executor, e -> e.getQueue().size());
+        meterRegistry.gauge("catalog.security.hashing.active", executor, ThreadPoolExecutor::getActiveCount);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long submittedAt = System.nanoTime();
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return delegate.matches(rawPassword, encodedPassword);
+                }
+                finally {
+                    hashTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            throw busy();
+        }
+
+        try {
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e) {
+            result.cancel(true);
+            throw busy();
+        }
+        catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private PasswordHashingBusyException busy() {
+        rejected.increment();
+        return new PasswordHashingBusyException("Servidor ocupado, tente novamente em instantes", retryAfterSeconds);
+    }
+}
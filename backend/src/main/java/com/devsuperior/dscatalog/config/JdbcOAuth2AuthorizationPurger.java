@@ -0,0 +1,51 @@
+package com.devsuperior.dscatalog.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * O JdbcOAuth2AuthorizationService nunca apaga as autorizações; esta tarefa remove, em lotes pequenos,
+ * as que já não têm token válido. Cada DELETE é uma transação própria (auto-commit).
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.oauth2.authorization-store", havingValue = "jdbc")
+public class JdbcOAuth2AuthorizationPurger {
+
+    private static final String DELETE_EXPIRED = """
+            DELETE FROM oauth2_authorization WHERE id IN (
+                SELECT id FROM oauth2_authorization
+                WHERE access_token_expires_at < ?
+                AND (refresh_token_expires_at IS NULL OR refresh_token_expires_at < ?)
+                LIMIT ?)
+            """;
+
+    @Value("${catalog.oauth2.authorizations.purge-batch-size}")
+    private int batchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Scheduled(fixedDelayString = "${catalog.oauth2.authorizations.purge-interval-ms}",
+            initialDelayString = "${catalog.oauth2.authorizations.purge-interval-ms}")
+    public void scheduledPurge() {
+        purgeExpired();
+    }
+
+    public long purgeExpired() {
+        Timestamp now = Timestamp.from(Instant.now());
+        long deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(DELETE_EXPIRED, now, now, batchSize);
+            deleted += batch;
+        } while (batch == batchSize);
+        return deleted;
+    }
+}
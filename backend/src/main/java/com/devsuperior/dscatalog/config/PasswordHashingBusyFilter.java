@@ -0,0 +1,56 @@
+package com.devsuperior.dscatalog.config;
+
+import com.devsuperior.dscatalog.services.exceptions.PasswordHashingBusyException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.http.converter.OAuth2ErrorHttpMessageConverter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Os filtros do servidor de autorização só tratam OAuth2AuthenticationException; a recusa do pool de hash
+ * atravessa a cadeia e é convertida aqui em 503 com Retry-After. O corpo é escrito pelo mesmo conversor que
+ * os endpoints do servidor de autorização usam para os demais erros.
+ */
+public class PasswordHashingBusyFilter extends OncePerRequestFilter {
+
+    private final HttpMessageConverter<OAuth2Error> errorConverter = new OAuth2ErrorHttpMessageConverter();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        }
+        catch (RuntimeException | ServletException e) {
+            PasswordHashingBusyException busy = findBusy(e);
+            if (busy == null || response.isCommitted()) {
+                throw e;
+            }
+            response.resetBuffer();
+            ServletServerHttpResponse httpResponse = new ServletServerHttpResponse(response);
+            httpResponse.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            httpResponse.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(busy.getRetryAfterSeconds()));
+            OAuth2Error error = new OAuth2Error(OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE, busy.getMessage(), null);
+            errorConverter.write(error, null, httpResponse);
+        }
+    }
+
+    private static PasswordHashingBusyException findBusy(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingBusyException busy) {
+                return busy;
+            }
+        }
+        return null;
+    }
+}
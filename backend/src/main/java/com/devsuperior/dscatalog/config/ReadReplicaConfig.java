@@ -0,0 +1,71 @@
+package com.devsuperior.dscatalog.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Substitui o DataSource do Spring Boot por um que manda as transações somente leitura
+ * para as réplicas. O primário continua configurado por spring.datasource.*; as réplicas
+ * usam as mesmas credenciais e o mesmo tamanho de pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${catalog.datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${catalog.datasource.replicas.retry-seconds}")
+    private long retrySeconds;
+
+    @Value("${catalog.datasource.replicas.read-your-writes-seconds}")
+    private long readYourWritesSeconds;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                          DataSourceProperties properties,
+                                                          MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .build();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicas, Duration.ofSeconds(retrySeconds),
+                Duration.ofSeconds(readYourWritesSeconds), meterRegistry);
+    }
+
+    // A conexão só é obtida no primeiro comando, depois que a transação registrou se é somente leitura
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
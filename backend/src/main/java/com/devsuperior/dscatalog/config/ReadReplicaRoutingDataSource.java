@@ -0,0 +1,166 @@
+package com.devsuperior.dscatalog.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Entrega conexões de réplica para transações somente leitura, em rodízio, e do primário
+ * para as demais. Uma réplica que falha ao conectar fica fora do rodízio por um intervalo;
+ * sem réplica disponível a leitura vai para o primário. Com a janela de read-your-writes
+ * ligada, o usuário que acabou de gravar lê do primário até a janela expirar.
+ * <p>
+ * A decisão depende da transação corrente, por isso este DataSource deve ser usado atrás de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, que só pede a conexão
+ * no primeiro comando, quando o readOnly da transação já está registrado.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long retryNanos;
+    private final Cache<String, Boolean> recentWriters;
+
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+    private final Counter replicaFailures;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration retryAfter,
+                                        Duration readYourWrites, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        for (DataSource replica : replicas) {
+            this.replicas.add(new Replica(replica));
+        }
+        this.retryNanos = retryAfter.toNanos();
+
+        // Janela zero desliga o read-your-writes
+        this.recentWriters = readYourWrites.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(readYourWrites)
+                .build();
+
+        this.primaryReads = meterRegistry.counter("catalog.datasource.reads", "target", "primary");
+        this.replicaReads = meterRegistry.counter("catalog.datasource.reads", "target", "replica");
+        this.replicaFailures = meterRegistry.counter("catalog.datasource.replica.failures");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    // Mesmo roteamento, repassando as credenciais ao pool escolhido
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!wroteRecently()) {
+                Connection connection = replicaConnection(source);
+                if (connection != null) {
+                    replicaReads.increment();
+                    return connection;
+                }
+            }
+            primaryReads.increment();
+        }
+        else {
+            trackWrite();
+        }
+        return source.open(primary);
+    }
+
+    private Connection replicaConnection(ConnectionSource source) {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+
+        // Rodízio a partir da próxima réplica, pulando as que estão em quarentena
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.isAvailable()) {
+                continue;
+            }
+            try {
+                Connection connection = source.open(replica.dataSource);
+                replica.downUntil = 0;
+                return connection;
+            }
+            catch (SQLException e) {
+                replica.downUntil = System.nanoTime() + retryNanos;
+                replicaFailures.increment();
+            }
+        }
+        return null;
+    }
+
+    private boolean wroteRecently() {
+        String user = currentUser();
+        return recentWriters != null && user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    // Marca o usuário só depois do commit: antes disso a escrita nem existe no primário
+    private void trackWrite() {
+        String user = currentUser();
+        if (recentWriters == null || user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated() ? null : authentication.getName();
+    }
+
+    private interface ConnectionSource {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private static class Replica {
+
+        private final DataSource dataSource;
+        private volatile long downUntil;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        boolean isAvailable() {
+            return downUntil == 0 || System.nanoTime() - downUntil >= 0;
+        }
+    }
+}
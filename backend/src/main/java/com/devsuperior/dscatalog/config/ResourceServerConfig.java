@@ -1,6 +1,8 @@
 package com.devsuperior.dscatalog.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
@@ -47,8 +49,21 @@ public class ResourceServerConfig {
 		return http.build();
 	}
 
+	// Só o health fica público; métricas e demais endpoints do actuator exigem um token de ADMIN
 	@Bean
 	@Order(3)
+	SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+		http.securityMatcher(EndpointRequest.toAnyEndpoint());
+		http.authorizeHttpRequests(authorize -> authorize
+				.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+				.anyRequest().hasRole("ADMIN"));
+		http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()));
+		http.cors(cors -> cors.configurationSource(corsConfigurationSource()));
+		return http.build();
+	}
+
+	@Bean
+	@Order(4)
 	SecurityFilterChain rsSecurityFilterChain(HttpSecurity http) throws Exception {
 		http.csrf(csrf -> csrf.disable());
 		http.authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll());
@@ -0,0 +1,53 @@
+package com.devsuperior.dscatalog.config;
+
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+
+/**
+ * Não guarda as autorizações que só carregam um access token JWT: o resource server valida a assinatura
+ * e as claims, sem consultar o servidor. Autorizações com refresh token, código de autorização ou state
+ * seguem para o delegate. O custo é que a introspecção e a revogação passam a ignorar esses JWTs,
+ * que valem até expirar.
+ */
+public class SelfContainedTokenAuthorizationService implements OAuth2AuthorizationService {
+
+    private final OAuth2AuthorizationService delegate;
+
+    public SelfContainedTokenAuthorizationService(OAuth2AuthorizationService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void save(OAuth2Authorization authorization) {
+        if (!isSelfContainedOnly(authorization)) {
+            delegate.save(authorization);
+        }
+    }
+
+    @Override
+    public void remove(OAuth2Authorization authorization) {
+        delegate.remove(authorization);
+    }
+
+    @Override
+    public OAuth2Authorization findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
+        return delegate.findByToken(token, tokenType);
+    }
+
+    static boolean isSelfContainedOnly(OAuth2Authorization authorization) {
+        OAuth2Authorization.Token<?> accessToken = authorization.getAccessToken();
+        return accessToken != null
+                && accessToken.getClaims() != null
+                && authorization.getRefreshToken() == null
+                && authorization.getToken(OAuth2AuthorizationCode.class) == null
+                && authorization.getAttribute(OAuth2ParameterNames.STATE) == null;
+    }
+}
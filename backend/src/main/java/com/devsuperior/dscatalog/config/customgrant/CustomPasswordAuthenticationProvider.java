@@ -1,14 +1,11 @@
 package com.devsuperior.dscatalog.config.customgrant;
 
-import java.security.Principal;
-import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -35,13 +32,13 @@ import org.springframework.util.Assert;
 public class CustomPasswordAuthenticationProvider implements AuthenticationProvider {
 
 	private static final String ERROR_URI = "https://datatracker.ietf.org/doc/html/rfc6749#section-5.2";
+	private static final AuthorizationGrantType PASSWORD_GRANT_TYPE = new AuthorizationGrantType("password");
+
+	// Singleton compartilhado entre as requisições: o estado de cada login fica só em variáveis locais
 	private final OAuth2AuthorizationService authorizationService;
 	private final UserDetailsService userDetailsService;
 	private final OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator;
 	private final PasswordEncoder passwordEncoder;
-	private String username = "";
-	private String password = "";
-	private Set<String> authorizedScopes = new HashSet<>();
 
 	public CustomPasswordAuthenticationProvider(OAuth2AuthorizationService authorizationService,
 			OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator, 
@@ -63,8 +60,8 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
 		CustomPasswordAuthenticationToken customPasswordAuthenticationToken = (CustomPasswordAuthenticationToken) authentication;
 		OAuth2ClientAuthenticationToken clientPrincipal = getAuthenticatedClientElseThrowInvalidClient(customPasswordAuthenticationToken);
 		RegisteredClient registeredClient = clientPrincipal.getRegisteredClient();
-		username = customPasswordAuthenticationToken.getUsername();
-		password = customPasswordAuthenticationToken.getPassword();	
+		String username = customPasswordAuthenticationToken.getUsername();
+		String password = customPasswordAuthenticationToken.getPassword();
 		
 		UserDetails user = null;
 		try {
@@ -77,33 +74,31 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
 			throw new OAuth2AuthenticationException("Invalid credentials");
 		}
 		
-		authorizedScopes = user.getAuthorities().stream()
+		Set<String> authorizedScopes = user.getAuthorities().stream()
 				.map(scope -> scope.getAuthority())
 				.filter(scope -> registeredClient.getScopes().contains(scope))
 				.collect(Collectors.toSet());
 		
-		//-----------Create a new Security Context Holder Context----------
-		OAuth2ClientAuthenticationToken oAuth2ClientAuthenticationToken = (OAuth2ClientAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-		CustomUserAuthorities customPasswordUser = new CustomUserAuthorities(username, user.getAuthorities());
-		oAuth2ClientAuthenticationToken.setDetails(customPasswordUser);
-		
-		var newcontext = SecurityContextHolder.createEmptyContext();
-		newcontext.setAuthentication(oAuth2ClientAuthenticationToken);
-		SecurityContextHolder.setContext(newcontext);		
+		//-----------Principal do token, lido pelo tokenCustomizer----------
+		// Cópia do token do cliente: nada fora desta chamada (SecurityContext, token compartilhado) é alterado
+		OAuth2ClientAuthenticationToken tokenPrincipal = new OAuth2ClientAuthenticationToken(registeredClient,
+				clientPrincipal.getClientAuthenticationMethod(), clientPrincipal.getCredentials());
+		tokenPrincipal.setDetails(new CustomUserAuthorities(username, user.getAuthorities()));
 		
 		//-----------TOKEN BUILDERS----------
 		DefaultOAuth2TokenContext.Builder tokenContextBuilder = DefaultOAuth2TokenContext.builder()
 				.registeredClient(registeredClient)
-				.principal(clientPrincipal)
+				.principal(tokenPrincipal)
 				.authorizationServerContext(AuthorizationServerContextHolder.getContext())
 				.authorizedScopes(authorizedScopes)
-				.authorizationGrantType(new AuthorizationGrantType("password"))
+				.authorizationGrantType(PASSWORD_GRANT_TYPE)
 				.authorizationGrant(customPasswordAuthenticationToken);
 		
+		// Sem o atributo Principal: só o fluxo de refresh token o lê, este grant não emite refresh token,
+		// e o OAuth2ClientAuthenticationToken não é desserializável pelo armazenamento JDBC
 		OAuth2Authorization.Builder authorizationBuilder = OAuth2Authorization.withRegisteredClient(registeredClient)
-				.attribute(Principal.class.getName(), clientPrincipal)
 				.principalName(clientPrincipal.getName())
-				.authorizationGrantType(new AuthorizationGrantType("password"))
+				.authorizationGrantType(PASSWORD_GRANT_TYPE)
 				.authorizedScopes(authorizedScopes);
 		
 		//-----------ACCESS TOKEN----------
@@ -1,22 +1,43 @@
 package com.devsuperior.dscatalog.controllers;
 
+import com.devsuperior.dscatalog.dto.BulkUpdateResultDTO;
+import com.devsuperior.dscatalog.dto.CategoryMatch;
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+import com.devsuperior.dscatalog.dto.ExportFormat;
+import com.devsuperior.dscatalog.dto.LinkMode;
+import com.devsuperior.dscatalog.dto.ProductBulkUpdateDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductImportReportDTO;
+import com.devsuperior.dscatalog.dto.ProductPageDTO;
+import com.devsuperior.dscatalog.dto.ProductRangeFilter;
+import com.devsuperior.dscatalog.dto.TotalMode;
+import com.devsuperior.dscatalog.services.ProductBulkUpdateService;
+import com.devsuperior.dscatalog.services.ProductExportService;
+import com.devsuperior.dscatalog.services.ProductImportService;
+import com.devsuperior.dscatalog.services.ProductListing;
 import com.devsuperior.dscatalog.services.ProductService;
+import com.devsuperior.dscatalog.services.ResourceValidator;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Instant;
 
 @RestController
 @RequestMapping(value = "/products")
@@ -26,32 +47,113 @@ public class ProductController {
     @Autowired
     public ProductService service;
 
+    @Autowired
+    public ProductExportService exportService;
+
+    @Autowired
+    public ProductImportService importService;
+
+    @Autowired
+    public ProductBulkUpdateService bulkUpdateService;
+
     @Operation(
             summary = "List paged products",
-            description = "Get paged products",
+            description = "Get paged products. Use categoryMatch=all to require every category in categoryId, total=none to skip the count query (only hasNext is returned) or total=estimate to use a cached count. links=none omits HATEOAS links. facets=category adds the product count per category for the name filter. minPrice/maxPrice and from/to (ISO-8601) are inclusive ranges. sort accepts one of name, price, date or id, with asc or desc. Honours If-None-Match",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Ok")
+                    @ApiResponse(responseCode = "200", description = "Ok"),
+                    @ApiResponse(responseCode = "304", description = "Not Modified"),
+                    @ApiResponse(responseCode = "400", description = "Bad Request")
             }
     )
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Page<ProductDTO>> findAll(
+    public ResponseEntity<ProductPageDTO> findAll(
             @RequestParam(value = "categoryId", defaultValue = "0") String categoryId,
+            @RequestParam(value = "categoryMatch", defaultValue = "any") String categoryMatch,
             @RequestParam(value = "name", defaultValue = "") String name,
-            Pageable pageable) {
-        Page<ProductDTO> list = service.findAllPaged(categoryId, name, pageable);
+            @RequestParam(value = "total", defaultValue = "exact") String total,
+            @RequestParam(value = "links", defaultValue = "all") String links,
+            @RequestParam(value = "facets", defaultValue = "") String facets,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "from", required = false) Instant from,
+            @RequestParam(value = "to", required = false) Instant to,
+            Pageable pageable, WebRequest request) {
+        boolean categoryFacets = parseFacets(facets);
+        ProductRangeFilter range = new ProductRangeFilter(minPrice, maxPrice, from, to);
+
+        // Responde 304 quando o cliente já tem a versão atual; o ETag vem do cache de páginas
+        ProductListing listing = service.findListing(categoryId, CategoryMatch.of(categoryMatch), name, range,
+                TotalMode.of(total), LinkMode.of(links), categoryFacets, pageable);
+        if (request.checkNotModified(listing.getEtag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok().body(new ProductPageDTO(listing.getPage(), listing.getFacets()));
+    }
+
+    @Operation(
+            summary = "List products by cursor",
+            description = "Get products using keyset pagination. Pass an empty 'after' for the first page and the returned 'next' cursor for the following ones",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Ok"),
+                    @ApiResponse(responseCode = "400", description = "Bad Request")
+            }
+    )
+    @GetMapping(params = "after", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CursorPageDTO<ProductDTO>> findAllByCursor(
+            @RequestParam(value = "categoryId", defaultValue = "0") String categoryId,
+            @RequestParam(value = "name", defaultValue = "") String name,
+            @RequestParam(value = "after") String after,
+            @RequestParam(value = "size", defaultValue = "20") Integer size) {
+        CursorPageDTO<ProductDTO> list = service.findAllByCursor(categoryId, name, after, size);
         return ResponseEntity.ok().body(list);
     }
 
+    @Operation(
+            summary = "Export products",
+            description = "Stream every product matching categoryId and name as NDJSON (format=ndjson) or CSV (format=csv)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Ok"),
+                    @ApiResponse(responseCode = "400", description = "Bad Request"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden")
+            }
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "categoryId", defaultValue = "0") String categoryId,
+            @RequestParam(value = "name", defaultValue = "") String name,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+
+        // A transação de leitura é aberta na thread que escreve a resposta
+        StreamingResponseBody body = out -> exportService.export(categoryId, name, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products." + exportFormat.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
     @Operation(
             summary = "Get product by Id",
-            description = "Get product by Id",
+            description = "Get product by Id. Honours If-None-Match and If-Modified-Since",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Ok"),
+                    @ApiResponse(responseCode = "304", description = "Not Modified"),
                     @ApiResponse(responseCode = "404", description = "Not Found")
             }
     )
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<ProductDTO> findById(@PathVariable Long id, WebRequest request) {
+        // Compara só id + versão; o produto e as categorias são carregados apenas se mudaram
+        ResourceValidator validator = service.findValidatorById(id);
+        if (request.checkNotModified(validator.getEtag(), validator.getLastModified().toEpochMilli())) {
+            return null;
+        }
+
         ProductDTO dto = service.findById(id);
         return ResponseEntity.ok().body(dto);
     }
@@ -77,6 +179,43 @@ public class ProductController {
         return ResponseEntity.created(uri).body(dto);
     }
 
+    @Operation(
+            summary = "Import products in bulk",
+            description = "Import products from a JSON array or an NDJSON stream (application/x-ndjson). Valid rows are committed in chunks; the response lists the rejected rows",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Ok"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden")
+            }
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductImportReportDTO> importProducts(InputStream body) throws IOException {
+        ProductImportReportDTO report = importService.importProducts(body);
+        return ResponseEntity.ok().body(report);
+    }
+
+    @Operation(
+            summary = "Update products in bulk",
+            description = "Apply one change (price, priceFactor or imgUrl prefix) to every product matching ids, categoryIds and name, in a single transaction. Returns the affected count",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Ok"),
+                    @ApiResponse(responseCode = "400", description = "Bad Request"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden"),
+                    @ApiResponse(responseCode = "422", description = "Unprocessable Entity")
+            }
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+    @PatchMapping(value = "/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkUpdateResultDTO> updateProducts(@Valid @RequestBody ProductBulkUpdateDTO dto) {
+        BulkUpdateResultDTO result = bulkUpdateService.update(dto);
+        return ResponseEntity.ok().body(result);
+    }
+
     @Operation(
             summary = "Update product",
             description = "Update product",
@@ -115,4 +254,14 @@ public class ProductController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static boolean parseFacets(String facets) {
+        if (facets.isBlank()) {
+            return false;
+        }
+        if (!facets.trim().equalsIgnoreCase("category")) {
+            throw new BadRequestException("Valor inválido para facets: " + facets);
+        }
+        return true;
+    }
 }
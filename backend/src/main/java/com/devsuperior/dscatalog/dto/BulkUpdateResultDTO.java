@@ -0,0 +1,17 @@
+package com.devsuperior.dscatalog.dto;
+
+public class BulkUpdateResultDTO {
+
+    private long affected;
+
+    public BulkUpdateResultDTO() {
+    }
+
+    public BulkUpdateResultDTO(long affected) {
+        this.affected = affected;
+    }
+
+    public long getAffected() {
+        return affected;
+    }
+}
@@ -14,6 +14,11 @@ public class CategoryDTO {
         this.name = name;
     }
 
+    public CategoryDTO(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
     public CategoryDTO(Category entity) {
         id = entity.getId();
         name = entity.getName();
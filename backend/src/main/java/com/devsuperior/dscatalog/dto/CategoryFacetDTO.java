@@ -0,0 +1,29 @@
+package com.devsuperior.dscatalog.dto;
+
+public class CategoryFacetDTO {
+
+    private Long id;
+    private String name;
+    private Long count;
+
+    public CategoryFacetDTO() {
+    }
+
+    public CategoryFacetDTO(Long id, String name, Long count) {
+        this.id = id;
+        this.name = name;
+        this.count = count;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+}
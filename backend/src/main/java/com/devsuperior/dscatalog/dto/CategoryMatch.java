@@ -0,0 +1,21 @@
+package com.devsuperior.dscatalog.dto;
+
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+
+/**
+ * Semântica do filtro por várias categorias: ANY traz produtos em qualquer uma delas,
+ * ALL apenas os produtos presentes em todas.
+ */
+public enum CategoryMatch {
+
+    ANY, ALL;
+
+    public static CategoryMatch of(String value) {
+        for (CategoryMatch match : values()) {
+            if (match.name().equalsIgnoreCase(value)) {
+                return match;
+            }
+        }
+        throw new BadRequestException("Valor inválido para categoryMatch: " + value);
+    }
+}
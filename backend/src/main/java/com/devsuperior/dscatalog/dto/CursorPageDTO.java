@@ -0,0 +1,35 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.util.List;
+
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+    private Integer size;
+    private String next;
+
+    public CursorPageDTO() {
+    }
+
+    public CursorPageDTO(List<T> content, Integer size, String next) {
+        this.content = content;
+        this.size = size;
+        this.next = next;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public boolean isHasNext() {
+        return next != null;
+    }
+}
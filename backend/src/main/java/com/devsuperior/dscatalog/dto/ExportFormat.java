@@ -0,0 +1,30 @@
+package com.devsuperior.dscatalog.dto;
+
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+
+/**
+ * Formato da exportação do catálogo: um objeto JSON por linha (NDJSON) ou CSV.
+ */
+public enum ExportFormat {
+
+    NDJSON("application/x-ndjson"), CSV("text/csv");
+
+    private final String contentType;
+
+    ExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static ExportFormat of(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Valor inválido para format: " + value);
+    }
+}
@@ -0,0 +1,29 @@
+package com.devsuperior.dscatalog.dto;
+
+public class ImportErrorDTO {
+
+    private Long row;
+    private String field;
+    private String message;
+
+    public ImportErrorDTO() {
+    }
+
+    public ImportErrorDTO(Long row, String field, String message) {
+        this.row = row;
+        this.field = field;
+        this.message = message;
+    }
+
+    public Long getRow() {
+        return row;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,20 @@
+package com.devsuperior.dscatalog.dto;
+
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+
+/**
+ * Define se os produtos de uma listagem recebem links HATEOAS (ALL) ou não (NONE).
+ */
+public enum LinkMode {
+
+    ALL, NONE;
+
+    public static LinkMode of(String value) {
+        for (LinkMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new BadRequestException("Valor inválido para links: " + value);
+    }
+}
@@ -0,0 +1,84 @@
+package com.devsuperior.dscatalog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Positive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alteração aplicada de uma vez a todos os produtos que atendem ao filtro (ids, categorias e nome).
+ */
+public class ProductBulkUpdateDTO {
+
+    @Schema(description = "Only products with these ids")
+    private List<Long> ids = new ArrayList<>();
+
+    @Schema(description = "Only products in any of these categories")
+    private List<Long> categoryIds = new ArrayList<>();
+
+    @Schema(description = "Only products whose name contains this text")
+    private String name;
+
+    @Positive(message = "O valor deve ser positivo")
+    @Schema(description = "New price")
+    private Double price;
+
+    @Positive(message = "O fator deve ser positivo")
+    @Schema(description = "Multiply the current price by this factor, e.g. 0.9")
+    private Double priceFactor;
+
+    @Schema(description = "Current imgUrl prefix to be replaced; empty prepends newImgUrlPrefix")
+    private String imgUrlPrefix;
+
+    @Schema(description = "Replacement imgUrl prefix")
+    private String newImgUrlPrefix;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public List<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public Double getPriceFactor() {
+        return priceFactor;
+    }
+
+    public void setPriceFactor(Double priceFactor) {
+        this.priceFactor = priceFactor;
+    }
+
+    public String getImgUrlPrefix() {
+        return imgUrlPrefix;
+    }
+
+    public void setImgUrlPrefix(String imgUrlPrefix) {
+        this.imgUrlPrefix = imgUrlPrefix;
+    }
+
+    public String getNewImgUrlPrefix() {
+        return newImgUrlPrefix;
+    }
+
+    public void setNewImgUrlPrefix(String newImgUrlPrefix) {
+        this.newImgUrlPrefix = newImgUrlPrefix;
+    }
+}
@@ -0,0 +1,44 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de uma importação em lote. Rows são numeradas a partir de 1, na ordem de leitura;
+ * errors traz no máximo os primeiros erros, e failed conta todas as linhas rejeitadas.
+ */
+public class ProductImportReportDTO {
+
+    private long received;
+    private long imported;
+    private long failed;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<ImportErrorDTO> getErrors() {
+        return errors;
+    }
+}
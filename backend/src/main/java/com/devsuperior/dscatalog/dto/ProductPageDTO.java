@@ -0,0 +1,33 @@
+package com.devsuperior.dscatalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Página de produtos com as contagens por categoria opcionais. A página é serializada
+ * sem envelope, então sem facets a resposta é a mesma de um Slice comum.
+ */
+public class ProductPageDTO {
+
+    @JsonUnwrapped
+    private final Slice<ProductDTO> page;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final List<CategoryFacetDTO> facets;
+
+    public ProductPageDTO(Slice<ProductDTO> page, List<CategoryFacetDTO> facets) {
+        this.page = page;
+        this.facets = facets;
+    }
+
+    public Slice<ProductDTO> getPage() {
+        return page;
+    }
+
+    public List<CategoryFacetDTO> getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,27 @@
+package com.devsuperior.dscatalog.dto;
+
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+
+import java.time.Instant;
+
+/**
+ * Filtros de faixa de preço e de data da busca de produtos. Limites nulos não filtram;
+ * os informados são inclusivos.
+ */
+public record ProductRangeFilter(Double minPrice, Double maxPrice, Instant from, Instant to) {
+
+    public static final ProductRangeFilter NONE = new ProductRangeFilter(null, null, null, null);
+
+    public ProductRangeFilter {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new BadRequestException("minPrice não pode ser maior que maxPrice");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("from não pode ser posterior a to");
+        }
+    }
+
+    public boolean isEmpty() {
+        return minPrice == null && maxPrice == null && from == null && to == null;
+    }
+}
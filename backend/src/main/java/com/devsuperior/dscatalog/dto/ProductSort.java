@@ -0,0 +1,31 @@
+package com.devsuperior.dscatalog.dto;
+
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+
+/**
+ * Chaves de ordenação aceitas na busca de produtos. Cada uma tem um índice composto
+ * (coluna, id) para que a página saia de uma varredura ordenada do índice.
+ */
+public enum ProductSort {
+
+    NAME("name"), PRICE("price"), DATE("date"), ID("id");
+
+    private final String column;
+
+    ProductSort(String column) {
+        this.column = column;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public static ProductSort of(String value) {
+        for (ProductSort sort : values()) {
+            if (sort.name().equalsIgnoreCase(value)) {
+                return sort;
+            }
+        }
+        throw new BadRequestException("Valor inválido para sort: " + value);
+    }
+}
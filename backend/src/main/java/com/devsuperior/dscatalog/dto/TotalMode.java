@@ -0,0 +1,22 @@
+package com.devsuperior.dscatalog.dto;
+
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+
+/**
+ * Define como o total de elementos de uma busca paginada é calculado.
+ * NONE devolve apenas um Slice (hasNext), ESTIMATE usa uma contagem em cache
+ * e EXACT executa a query de contagem a cada requisição.
+ */
+public enum TotalMode {
+
+    NONE, ESTIMATE, EXACT;
+
+    public static TotalMode of(String value) {
+        for (TotalMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new BadRequestException("Valor inválido para total: " + value);
+    }
+}
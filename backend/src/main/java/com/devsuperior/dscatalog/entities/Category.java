@@ -1,6 +1,8 @@
 package com.devsuperior.dscatalog.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 import java.util.HashSet;
@@ -8,6 +10,8 @@ import java.util.Objects;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 @Table(name = "tb_category")
 public class Category {
 
@@ -13,8 +13,8 @@ public class PasswordRecover {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
-    private String token;
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
 
     @Column(nullable = false)
     private String email;
@@ -25,9 +25,9 @@ public class PasswordRecover {
     public PasswordRecover() {
     }
 
-    public PasswordRecover(Long id, String token, String email, Instant expiration) {
+    public PasswordRecover(Long id, String tokenHash, String email, Instant expiration) {
         this.id = id;
-        this.token = token;
+        this.tokenHash = tokenHash;
         this.email = email;
         this.expiration = expiration;
     }
@@ -40,12 +40,12 @@ public class PasswordRecover {
         this.id = id;
     }
 
-    public String getToken() {
-        return token;
+    public String getTokenHash() {
+        return tokenHash;
     }
 
-    public void setToken(String token) {
-        this.token = token;
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
     }
 
     public String getEmail() {
@@ -2,6 +2,8 @@ package com.devsuperior.dscatalog.entities;
 
 import com.devsuperior.dscatalog.projections.IdProjection;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 import java.util.HashSet;
@@ -9,6 +11,8 @@ import java.util.Objects;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 @Table(name = "tb_product")
 public class Product implements IdProjection<Long> {
 
@@ -25,7 +29,15 @@ public class Product implements IdProjection<Long> {
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant date;
 
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+
+    @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant updatedAt;
+
     @ManyToMany()
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-categories")
     @JoinTable(name = "tb_product_category",
         joinColumns = @JoinColumn(name = "product_id"),
         inverseJoinColumns = @JoinColumn(name = "category_id"))
@@ -92,10 +104,24 @@ public class Product implements IdProjection<Long> {
         this.date = date;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
     public Set<Category> getCategories() {
         return categories;
     }
 
+    @PrePersist
+    @PreUpdate
+    public void preUpdate() {
+        updatedAt = Instant.now();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
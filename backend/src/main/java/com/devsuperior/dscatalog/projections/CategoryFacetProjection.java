@@ -0,0 +1,8 @@
+package com.devsuperior.dscatalog.projections;
+
+public interface CategoryFacetProjection {
+
+    Long getId();
+    String getName();
+    Long getTotal();
+}
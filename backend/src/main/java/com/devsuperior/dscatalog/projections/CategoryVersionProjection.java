@@ -0,0 +1,11 @@
+package com.devsuperior.dscatalog.projections;
+
+import java.time.Instant;
+
+public interface CategoryVersionProjection {
+
+    Long getTotal();
+    Long getIdSum();
+    Instant getCreatedAt();
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,7 @@
+package com.devsuperior.dscatalog.projections;
+
+public interface ProductCategoryIdProjection {
+
+    Long getProductId();
+    Long getCategoryId();
+}
@@ -0,0 +1,8 @@
+package com.devsuperior.dscatalog.projections;
+
+public interface ProductCategoryProjection {
+
+    Long getId();
+    String getName();
+    Long getCategoryId();
+}
@@ -0,0 +1,13 @@
+package com.devsuperior.dscatalog.projections;
+
+public interface ProductExportProjection extends IdProjection<Long> {
+
+    Long getId();
+    String getName();
+    String getDescription();
+    Double getPrice();
+    String getImgUrl();
+    Object getDate();
+    Long getCategoryId();
+    String getCategoryName();
+}
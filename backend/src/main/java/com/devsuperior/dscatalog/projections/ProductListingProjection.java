@@ -0,0 +1,14 @@
+package com.devsuperior.dscatalog.projections;
+
+public interface ProductListingProjection extends IdProjection<Long> {
+
+    Long getId();
+    String getName();
+    String getDescription();
+    Double getPrice();
+    String getImgUrl();
+    Object getDate();
+    Long getCategoryId();
+    String getCategoryName();
+    Long getTotal();
+}
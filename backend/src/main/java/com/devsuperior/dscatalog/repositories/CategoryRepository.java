@@ -1,7 +1,20 @@
 package com.devsuperior.dscatalog.repositories;
 
 import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.projections.CategoryVersionProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.Set;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    @Query("SELECT obj.id FROM Category obj WHERE obj.id IN :ids")
+    Set<Long> searchExistingIds(Collection<Long> ids);
+
+    // Muda com qualquer inserção, remoção ou edição feita pela aplicação, inclusive em outra instância
+    @Query("SELECT COUNT(obj) AS total, COALESCE(SUM(obj.id), 0) AS idSum, MAX(obj.createdAt) AS createdAt, "
+            + "MAX(obj.updatedAt) AS updatedAt FROM Category obj")
+    CategoryVersionProjection searchVersion();
 }
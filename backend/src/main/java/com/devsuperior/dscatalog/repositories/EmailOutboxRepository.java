@@ -0,0 +1,37 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.entities.EmailOutbox;
+import com.devsuperior.dscatalog.entities.EmailOutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // SKIP LOCKED: instâncias concorrentes do despachante pegam lotes diferentes sem esperar umas pelas outras.
+    // Emails vencidos ficam de fora; o EmailOutboxPurgeService os marca como DEAD
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT obj FROM EmailOutbox obj WHERE obj.status = :status AND obj.nextAttemptAt <= :now "
+            + "AND (obj.expiresAt IS NULL OR obj.expiresAt > :now) ORDER BY obj.nextAttemptAt")
+    List<EmailOutbox> searchDue(EmailOutboxStatus status, Instant now, Pageable pageable);
+
+    // next_attempt_at guarda a última reserva (mais o lease), então serve de data de finalização e usa o mesmo índice
+    @Query("SELECT obj.id FROM EmailOutbox obj WHERE obj.status = :status AND obj.nextAttemptAt < :before ORDER BY obj.nextAttemptAt")
+    List<Long> searchFinishedIds(EmailOutboxStatus status, Instant before, Pageable pageable);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox obj SET obj.status = DEAD, obj.body = '', obj.lastError = 'Expirado antes do envio' "
+            + "WHERE obj.status = PENDING AND obj.expiresAt <= :now")
+    int expirePending(Instant now);
+}
@@ -1,15 +1,25 @@
 package com.devsuperior.dscatalog.repositories;
 
 import com.devsuperior.dscatalog.entities.PasswordRecover;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 public interface PasswordRecoverRepository extends JpaRepository<PasswordRecover, Long> {
 
-    @Query("SELECT obj FROM PasswordRecover obj WHERE obj.token = :token AND obj.expiration > :now")
-    List<PasswordRecover> searchValidTokens(String token, Instant now);
+    @Query("SELECT obj FROM PasswordRecover obj WHERE obj.tokenHash = :tokenHash AND obj.expiration > :now")
+    Optional<PasswordRecover> searchValidToken(String tokenHash, Instant now);
 
+    // Retorna 0 se outra requisição já consumiu o token
+    @Modifying
+    @Query("DELETE FROM PasswordRecover obj WHERE obj.id = :id")
+    int consume(Long id);
+
+    @Query("SELECT obj.id FROM PasswordRecover obj WHERE obj.expiration <= :now ORDER BY obj.expiration")
+    List<Long> searchExpiredIds(Instant now, Pageable pageable);
 }
@@ -1,15 +1,28 @@
 package com.devsuperior.dscatalog.repositories;
 
 import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.projections.CategoryFacetProjection;
+import com.devsuperior.dscatalog.projections.ProductCategoryIdProjection;
+import com.devsuperior.dscatalog.projections.ProductCategoryProjection;
+import com.devsuperior.dscatalog.projections.ProductExportProjection;
+import com.devsuperior.dscatalog.projections.ProductListingProjection;
 import com.devsuperior.dscatalog.projections.ProductProjection;
+import com.devsuperior.dscatalog.projections.ProductVersionProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     @Query(nativeQuery = true, value = """
             SELECT DISTINCT tb_product.id, tb_product.name
@@ -30,6 +43,209 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                     """)
     Page<ProductProjection> searchProducts(List<Long> categoryIds, String name, Pageable pageable);
 
+    @Query(nativeQuery = true, value = """
+            SELECT DISTINCT tb_product.id, tb_product.name
+            FROM tb_product
+            INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+            WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN (:categoryIds))
+            AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+            ORDER BY tb_product.name
+            """)
+    Slice<ProductProjection> searchProductsSlice(List<Long> categoryIds, String name, Pageable pageable);
+
+    @Query(nativeQuery = true, value = """
+            SELECT COUNT(DISTINCT tb_product.id)
+            FROM tb_product
+            INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+            WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN (:categoryIds))
+            AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+            """)
+    long countProducts(List<Long> categoryIds, String name);
+
+    @Query(nativeQuery = true, value = """
+            SELECT DISTINCT tb_product.id, tb_product.name
+            FROM tb_product
+            INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+            WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN (:categoryIds))
+            AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+            ORDER BY tb_product.name, tb_product.id
+            LIMIT :limit
+            """)
+    List<ProductProjection> searchProductsFirst(List<Long> categoryIds, String name, int limit);
+
+    @Query(nativeQuery = true, value = """
+            SELECT DISTINCT tb_product.id, tb_product.name
+            FROM tb_product
+            INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+            WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN (:categoryIds))
+            AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+            AND (tb_product.name, tb_product.id) > (:afterName, :afterId)
+            ORDER BY tb_product.name, tb_product.id
+            LIMIT :limit
+            """)
+    List<ProductProjection> searchProductsAfter(List<Long> categoryIds, String name, String afterName, Long afterId, int limit);
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product.id, tb_product.name, tb_product.description, tb_product.price,
+            tb_product.img_url AS imgUrl, tb_product.date,
+            tb_category.id AS categoryId, tb_category.name AS categoryName, tb_page.total
+            FROM (
+                SELECT tb_match.id, tb_match.name, COUNT(*) OVER () AS total
+                FROM (
+                    SELECT DISTINCT tb_product.id, tb_product.name
+                    FROM tb_product
+                    INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+                    WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN (:categoryIds))
+                    AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+                ) AS tb_match
+                ORDER BY tb_match.name, tb_match.id
+                LIMIT :limit OFFSET :offset
+            ) AS tb_page
+            INNER JOIN tb_product ON tb_product.id = tb_page.id
+            INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+            INNER JOIN tb_category ON tb_category.id = tb_product_category.category_id
+            ORDER BY tb_page.name, tb_page.id
+            """)
+    List<ProductListingProjection> searchProductListing(List<Long> categoryIds, String name, long offset, int limit);
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product.id, tb_product.name, tb_product_category.category_id AS categoryId
+            FROM tb_product
+            LEFT JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+            """)
+    List<ProductCategoryProjection> searchProductNamesWithCategories();
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product.id, tb_product.name
+            FROM tb_product
+            INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+            WHERE tb_product_category.category_id IN (:categoryIds)
+            AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+            GROUP BY tb_product.id, tb_product.name
+            HAVING COUNT(DISTINCT tb_product_category.category_id) = :categoryCount
+            ORDER BY tb_product.name
+            """,
+            countQuery = """
+                    SELECT COUNT(*) FROM (
+                    SELECT tb_product.id
+                    FROM tb_product
+                    INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+                    WHERE tb_product_category.category_id IN (:categoryIds)
+                    AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+                    GROUP BY tb_product.id
+                    HAVING COUNT(DISTINCT tb_product_category.category_id) = :categoryCount
+                    ) AS tb_result
+                    """)
+    Page<ProductProjection> searchProductsInAllCategories(List<Long> categoryIds, long categoryCount, String name, Pageable pageable);
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product.id, tb_product.name
+            FROM tb_product
+            INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+            WHERE tb_product_category.category_id IN (:categoryIds)
+            AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+            GROUP BY tb_product.id, tb_product.name
+            HAVING COUNT(DISTINCT tb_product_category.category_id) = :categoryCount
+            ORDER BY tb_product.name
+            """)
+    Slice<ProductProjection> searchProductsInAllCategoriesSlice(List<Long> categoryIds, long categoryCount, String name, Pageable pageable);
+
+    @Query(nativeQuery = true, value = """
+            SELECT COUNT(*) FROM (
+            SELECT tb_product.id
+            FROM tb_product
+            INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+            WHERE tb_product_category.category_id IN (:categoryIds)
+            AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+            GROUP BY tb_product.id
+            HAVING COUNT(DISTINCT tb_product_category.category_id) = :categoryCount
+            ) AS tb_result
+            """)
+    long countProductsInAllCategories(List<Long> categoryIds, long categoryCount, String name);
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product.id, tb_product.name
+            FROM tb_product
+            WHERE tb_product.id IN (:productIds)
+            AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+            ORDER BY tb_product.name
+            """,
+            countQuery = """
+                    SELECT COUNT(*)
+                    FROM tb_product
+                    WHERE tb_product.id IN (:productIds)
+                    AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+                    """)
+    Page<ProductProjection> searchProductsByIds(List<Long> productIds, String name, Pageable pageable);
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product.id, tb_product.name
+            FROM tb_product
+            WHERE tb_product.id IN (:productIds)
+            AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+            ORDER BY tb_product.name
+            """)
+    Slice<ProductProjection> searchProductsByIdsSlice(List<Long> productIds, String name, Pageable pageable);
+
+    // Percorre tb_product pelo índice (name, id), sem o JOIN com as categorias, em blocos de :limit
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product.id, tb_product.name
+            FROM tb_product
+            WHERE (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+            ORDER BY tb_product.name, tb_product.id
+            LIMIT :limit
+            """)
+    List<ProductProjection> searchProductsByNameFirst(String name, int limit);
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product.id, tb_product.name
+            FROM tb_product
+            WHERE (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+            AND (tb_product.name, tb_product.id) > (:afterName, :afterId)
+            ORDER BY tb_product.name, tb_product.id
+            LIMIT :limit
+            """)
+    List<ProductProjection> searchProductsByNameAfter(String name, String afterName, Long afterId, int limit);
+
+    @Query(nativeQuery = true, value = "SELECT product_id AS productId, category_id AS categoryId FROM tb_product_category")
+    List<ProductCategoryIdProjection> searchProductCategoryIds();
+
+    // Uma linha por par produto/categoria, agrupadas por produto; lida por cursor
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product.id, tb_product.name, tb_product.description, tb_product.price,
+            tb_product.img_url AS imgUrl, tb_product.date,
+            tb_category.id AS categoryId, tb_category.name AS categoryName
+            FROM tb_product
+            INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+            INNER JOIN tb_category ON tb_category.id = tb_product_category.category_id
+            WHERE tb_product.id IN (SELECT tb_match.product_id FROM tb_product_category AS tb_match
+                WHERE :categoryIds IS NULL OR tb_match.category_id IN (:categoryIds))
+            AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+            ORDER BY tb_product.id
+            """)
+    Stream<ProductExportProjection> streamProductExport(List<Long> categoryIds, String name);
+
+    @Query(nativeQuery = true, value = """
+            SELECT tb_category.id, tb_category.name, COUNT(*) AS total
+            FROM tb_product_category
+            INNER JOIN tb_product ON tb_product.id = tb_product_category.product_id
+            INNER JOIN tb_category ON tb_category.id = tb_product_category.category_id
+            WHERE (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
+            GROUP BY tb_category.id, tb_category.name
+            ORDER BY tb_category.name
+            """)
+    List<CategoryFacetProjection> searchCategoryFacets(String name);
+
+    @Query("SELECT obj.version AS version, obj.updatedAt AS updatedAt FROM Product obj WHERE obj.id = :id")
+    Optional<ProductVersionProjection> searchVersion(Long id);
+
+    @Query("SELECT category.id FROM Product obj JOIN obj.categories category WHERE obj.id = :productId")
+    Set<Long> searchCategoryIds(Long productId);
+
     @Query("SELECT obj FROM Product obj JOIN FETCH obj.categories WHERE obj.id IN :productIds")
     List<Product> searchProductsWithCategories(List<Long> productIds);
 }
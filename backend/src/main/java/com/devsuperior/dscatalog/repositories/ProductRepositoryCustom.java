@@ -0,0 +1,21 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.dto.ProductRangeFilter;
+import com.devsuperior.dscatalog.dto.ProductSort;
+import com.devsuperior.dscatalog.projections.ProductProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Busca com filtros de faixa e ordenação por uma das chaves de ProductSort, com desempate por id.
+     * Com count = false devolve um Slice (size + 1 linhas, sem contagem); caso contrário, um Page.
+     */
+    Slice<ProductProjection> searchProductsSorted(List<Long> categoryIds, boolean matchAll, String name,
+                                                  ProductRangeFilter range, ProductSort sort,
+                                                  Sort.Direction direction, Pageable pageable, boolean count);
+}
@@ -0,0 +1,110 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.dto.ProductRangeFilter;
+import com.devsuperior.dscatalog.dto.ProductSort;
+import com.devsuperior.dscatalog.projections.ProductProjection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<ProductProjection> searchProductsSorted(List<Long> categoryIds, boolean matchAll, String name,
+                                                         ProductRangeFilter range, ProductSort sort,
+                                                         Sort.Direction direction, Pageable pageable, boolean count) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String where = where(categoryIds, matchAll, name, range, params);
+
+        // A coluna vem do enum, nunca da requisição; o id desempata e completa o índice (coluna, id)
+        String dir = direction.isAscending() ? "ASC" : "DESC";
+        Query query = entityManager.createNativeQuery("SELECT tb_product.id, tb_product.name FROM tb_product"
+                + where + " ORDER BY tb_product." + sort.getColumn() + " " + dir + ", tb_product.id " + dir);
+        params.forEach(query::setParameter);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(count ? pageable.getPageSize() : pageable.getPageSize() + 1);
+
+        List<ProductProjection> content = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            content.add(new Row(((Number) columns[0]).longValue(), (String) columns[1]));
+        }
+
+        if (!count) {
+            boolean hasNext = content.size() > pageable.getPageSize();
+            return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+        }
+
+        Query countQuery = entityManager.createNativeQuery("SELECT COUNT(*) FROM tb_product" + where);
+        params.forEach(countQuery::setParameter);
+        long total = ((Number) countQuery.getSingleResult()).longValue();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private static String where(List<Long> categoryIds, boolean matchAll, String name, ProductRangeFilter range,
+                                Map<String, Object> params) {
+        StringBuilder where = new StringBuilder(" WHERE LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :name, '%'))");
+        params.put("name", name);
+
+        // Mesmo critério das demais buscas: só entram produtos com ao menos uma categoria
+        if (categoryIds.isEmpty()) {
+            where.append(" AND EXISTS (SELECT 1 FROM tb_product_category WHERE tb_product_category.product_id = tb_product.id)");
+        }
+        else if (matchAll) {
+            where.append(" AND (SELECT COUNT(DISTINCT tb_product_category.category_id) FROM tb_product_category")
+                    .append(" WHERE tb_product_category.product_id = tb_product.id")
+                    .append(" AND tb_product_category.category_id IN (:categoryIds)) = :categoryCount");
+            params.put("categoryIds", categoryIds);
+            params.put("categoryCount", (long) categoryIds.size());
+        }
+        else {
+            where.append(" AND EXISTS (SELECT 1 FROM tb_product_category WHERE tb_product_category.product_id = tb_product.id")
+                    .append(" AND tb_product_category.category_id IN (:categoryIds))");
+            params.put("categoryIds", categoryIds);
+        }
+
+        if (range.minPrice() != null) {
+            where.append(" AND tb_product.price >= :minPrice");
+            params.put("minPrice", range.minPrice());
+        }
+        if (range.maxPrice() != null) {
+            where.append(" AND tb_product.price <= :maxPrice");
+            params.put("maxPrice", range.maxPrice());
+        }
+        if (range.from() != null) {
+            where.append(" AND tb_product.date >= :from");
+            params.put("from", range.from());
+        }
+        if (range.to() != null) {
+            where.append(" AND tb_product.date <= :to");
+            params.put("to", range.to());
+        }
+        return where.toString();
+    }
+
+    private record Row(Long id, String name) implements ProductProjection {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
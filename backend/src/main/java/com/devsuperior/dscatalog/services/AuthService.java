@@ -18,8 +18,11 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
-import java.util.List;
+import java.util.HexFormat;
 import java.util.UUID;
 
 @Service
@@ -41,7 +44,7 @@ public class AuthService {
     private PasswordRecoverRepository passwordRecoverRepository;
 
     @Autowired
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
 
     @Transactional
     public void createRecoverToken(EmailDTO body) {
@@ -52,30 +55,47 @@ public class AuthService {
 
         String token = UUID.randomUUID().toString();
 
+        Instant expiration = Instant.now().plusSeconds(tokenMinutes * 60L);
+
         PasswordRecover entity = new PasswordRecover();
-        entity.setToken(token);
-        entity.setExpiration(Instant.now().plusSeconds(tokenMinutes * 60L));
+        entity.setTokenHash(hashToken(token));
+        entity.setExpiration(expiration);
         entity.setEmail(body.getEmail());
         passwordRecoverRepository.save(entity);
 
         String text = "Acesse o link para definir uma nova senha (válido por " + tokenMinutes + " minutos):\n\n"
                 + recoverUri + token;
 
-        emailService.sendEmail(body.getEmail(), "Recuperação de senha", text);
+        // O link só existe no corpo do email, que é apagado quando o envio termina ou quando o token expira
+        emailOutboxService.enqueue(body.getEmail(), "Recuperação de senha", text, expiration);
     }
 
     @Transactional
     public void saveNewPassword(@Valid NewPasswordDTO body) {
-        List<PasswordRecover> result = passwordRecoverRepository.searchValidTokens(body.getToken(), Instant.now());
-        if (result.size() == 0) {
+        PasswordRecover recover = passwordRecoverRepository.searchValidToken(hashToken(body.getToken()), Instant.now())
+                .orElseThrow(() -> new ResourceNotFoundException("Token Inválido"));
+
+        // O token vale uma única vez; o DELETE condicional também barra dois usos simultâneos
+        if (passwordRecoverRepository.consume(recover.getId()) == 0) {
             throw new ResourceNotFoundException("Token Inválido");
         }
 
-        User user = userRepository.findByEmail(result.get(0).getEmail());
+        User user = userRepository.findByEmail(recover.getEmail());
         user.setPassword(passwordEncoder.encode(body.getPassword()));
         user = userRepository.save(user);
     }
 
+    // Em tb_password_recover fica só o hash; o token é aleatório (UUID), então não precisa de salt
+    static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     protected User authenticated() {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
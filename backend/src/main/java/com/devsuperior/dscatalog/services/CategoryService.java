@@ -2,19 +2,38 @@ package com.devsuperior.dscatalog.services;
 
 import com.devsuperior.dscatalog.dto.CategoryDTO;
 import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.projections.CategoryVersionProjection;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class CategoryService {
@@ -22,10 +41,93 @@ public class CategoryService {
     @Autowired
     private CategoryRepository repository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalog.categories.snapshot.check-seconds}")
+    private long checkSeconds;
+
+    private final AtomicReference<CategorySnapshot> snapshot = new AtomicReference<>();
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile long checkedAt = System.nanoTime();
+    private final AtomicLong versions = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
     @Transactional(readOnly = true)
     public List<CategoryDTO> findAll () {
-        List<Category> list = repository.findAll();
-        return list.stream().map(x -> new CategoryDTO(x)).toList();
+        return findAllSnapshot().getCategories();
+    }
+
+    public CategorySnapshot findAllSnapshot() {
+        CategorySnapshot current = snapshot.get();
+        if (current == null) {
+            return rebuildSnapshot();
+        }
+        return isStale(current) ? rebuildSnapshot() : current;
+    }
+
+    // Os eventos só chegam da própria instância; a cada intervalo uma única thread compara a versão
+    // da tabela com a do snapshot, e as demais seguem com o snapshot atual enquanto isso
+    private boolean isStale(CategorySnapshot current) {
+        if (System.nanoTime() - checkedAt < Duration.ofSeconds(checkSeconds).toNanos()
+                || !checking.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            checkedAt = System.nanoTime();
+            return !state(repository.searchVersion()).equals(current.getState());
+        }
+        finally {
+            checking.set(false);
+        }
+    }
+
+    private static String state(CategoryVersionProjection version) {
+        return version.getTotal() + "-" + version.getIdSum() + "-" + version.getCreatedAt() + "-" + version.getUpdatedAt();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuildSnapshot();
+    }
+
+    private CategorySnapshot rebuildSnapshot() {
+        rebuildLock.lock();
+        try {
+            // A versão é lida antes das linhas: se mudar entre as duas leituras, a próxima verificação reconstrói
+            String state = state(repository.searchVersion());
+            List<Category> entities = repository.findAll();
+            List<CategoryDTO> list = entities.stream().map(x -> new CategoryDTO(x)).toList();
+            byte[] json = objectMapper.writeValueAsBytes(list);
+
+            ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+                out.write(json);
+            }
+
+            CategorySnapshot rebuilt = new CategorySnapshot(versions.incrementAndGet(), list, json,
+                    gzip.toByteArray(), DigestUtils.md5DigestAsHex(json), lastModified(entities), state);
+            snapshot.set(rebuilt);
+            checkedAt = System.nanoTime();
+            return rebuilt;
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Falha ao serializar categorias", e);
+        }
+        finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static Instant lastModified(List<Category> entities) {
+        return entities.stream()
+                .flatMap(x -> Stream.of(x.getCreatedAt(), x.getUpdatedAt()))
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(Instant.EPOCH);
     }
 
     @Transactional(readOnly = true)
@@ -40,6 +142,7 @@ public class CategoryService {
         Category category = new Category();
         copyDtoToEntity(dto, category);
         category = repository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
         return new CategoryDTO(category);
     }
 
@@ -49,6 +152,7 @@ public class CategoryService {
             Category category = repository.getReferenceById(id);
             copyDtoToEntity(dto, category);
             category = repository.save(category);
+            eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
             return new CategoryDTO(category);
         }
         catch (EntityNotFoundException e) {
@@ -63,6 +167,7 @@ public class CategoryService {
         }
         try {
             repository.deleteById(id);
+            eventPublisher.publishEvent(new CategoryChangedEvent(id));
         }
         catch (DataIntegrityViolationException e) {
             throw new DataBaseException("Violação de integridade");
@@ -0,0 +1,69 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Versão imutável da lista de categorias, já serializada em JSON e compactada em gzip,
+ * com ETags fortes para cada representação.
+ */
+public class CategorySnapshot {
+
+    private final long version;
+    private final List<CategoryDTO> categories;
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+    private final Instant lastModified;
+    private final String state;
+
+    public CategorySnapshot(long version, List<CategoryDTO> categories, byte[] json, byte[] gzip, String etag,
+                            Instant lastModified, String state) {
+        this.version = version;
+        this.categories = categories;
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.state = state;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<CategoryDTO> getCategories() {
+        return categories;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public String getDigest() {
+        return etag;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    // Versão da tabela de categorias lida antes de montar o snapshot
+    public String getState() {
+        return state;
+    }
+
+    public String getEtag() {
+        return "\"" + etag + "\"";
+    }
+
+    public String getGzipEtag() {
+        return "\"" + etag + "-gzip\"";
+    }
+}
@@ -0,0 +1,224 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.entities.EmailOutbox;
+import com.devsuperior.dscatalog.entities.EmailOutboxStatus;
+import com.devsuperior.dscatalog.repositories.EmailOutboxRepository;
+import com.devsuperior.dscatalog.services.events.EmailQueuedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Esvazia a tabela de saída de emails em lotes. Cada lote é reservado em uma transação curta
+ * (a próxima tentativa é empurrada para depois do lease, o que o devolve à fila se o processo cair
+ * no meio do envio), enviado por uma única conexão SMTP fora de qualquer transação e finalizado em
+ * outra transação curta. Falhas voltam para a fila com backoff exponencial até o limite de tentativas,
+ * quando o email é marcado como DEAD. Ao terminar (SENT ou DEAD) o corpo é apagado, porque pode levar
+ * links com token; ficam destinatário, assunto e o último erro.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    @Value("${spring.mail.username}")
+    private String emailFrom;
+
+    @Value("${catalog.mail.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${catalog.mail.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${catalog.mail.outbox.backoff-seconds}")
+    private long backoffSeconds;
+
+    @Value("${catalog.mail.outbox.max-backoff-seconds}")
+    private long maxBackoffSeconds;
+
+    @Value("${catalog.mail.outbox.lease-seconds}")
+    private long leaseSeconds;
+
+    @Autowired
+    private EmailOutboxRepository repository;
+
+    @Autowired
+    private JavaMailSender emailSender;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("mailTaskExecutor")
+    private TaskExecutor mailTaskExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+
+    private final Timer sendTimer;
+    private final Timer deliveryTimer;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter deadLettered;
+
+    public EmailOutboxDispatcher(MeterRegistry meterRegistry) {
+        meterRegistry.gauge("catalog.mail.outbox.depth", pending);
+        meterRegistry.gauge("catalog.mail.outbox.dead", dead);
+        this.sendTimer = meterRegistry.timer("catalog.mail.outbox.send");
+        this.deliveryTimer = meterRegistry.timer("catalog.mail.outbox.delivery");
+        this.sent = meterRegistry.counter("catalog.mail.outbox.sent");
+        this.failed = meterRegistry.counter("catalog.mail.outbox.failed");
+        this.deadLettered = meterRegistry.counter("catalog.mail.outbox.dead-lettered");
+    }
+
+    // Envia logo após o commit, sem esperar pela próxima varredura
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        trigger();
+    }
+
+    // Varredura periódica: retentativas com backoff e emails deixados por instâncias que caíram
+    @Scheduled(fixedDelayString = "${catalog.mail.outbox.poll-ms}", initialDelayString = "${catalog.mail.outbox.poll-ms}")
+    public void poll() {
+        trigger();
+    }
+
+    // O SMTPTransport usa synchronized, por isso o envio roda no pool de plataforma e não em thread virtual
+    private void trigger() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            mailTaskExecutor.execute(() -> {
+                try {
+                    int claimed;
+                    do {
+                        claimed = dispatchBatch();
+                    } while (claimed == batchSize);
+                }
+                finally {
+                    running.set(false);
+                    refreshGauges();
+                }
+            });
+        }
+        catch (TaskRejectedException e) {
+            // Executor saturado: a próxima varredura tenta de novo
+            running.set(false);
+        }
+    }
+
+    /**
+     * Reserva, envia e finaliza um lote de emails vencidos. Retorna quantos emails foram reservados.
+     */
+    public int dispatchBatch() {
+        List<EmailOutbox> batch = claim();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox email = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(emailFrom);
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            messages[i] = message;
+        }
+
+        // Uma conexão para o lote inteiro; falhas individuais vêm no MailSendException
+        Map<Object, Exception> failures = Map.of();
+        MailException batchFailure = null;
+        long start = System.nanoTime();
+        try {
+            emailSender.send(messages);
+        }
+        catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                batchFailure = e;
+            }
+        }
+        catch (MailException e) {
+            batchFailure = e;
+        }
+        sendTimer.record(Duration.ofNanos(System.nanoTime() - start));
+
+        Instant now = Instant.now();
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox email = batch.get(i);
+            Exception error = batchFailure != null ? batchFailure : failures.get(messages[i]);
+            if (error == null) {
+                markSent(email, now);
+            }
+            else {
+                markFailed(email, error, now);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> repository.saveAll(batch));
+        return batch.size();
+    }
+
+    private List<EmailOutbox> claim() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<EmailOutbox> batch = repository.searchDue(EmailOutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+            for (EmailOutbox email : batch) {
+                email.setAttempts(email.getAttempts() + 1);
+                email.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+            }
+            return batch;
+        });
+    }
+
+    private void markSent(EmailOutbox email, Instant now) {
+        email.setStatus(EmailOutboxStatus.SENT);
+        email.setSentAt(now);
+        email.setLastError(null);
+        email.setBody("");
+        sent.increment();
+        deliveryTimer.record(Duration.between(email.getCreatedAt(), now));
+    }
+
+    private void markFailed(EmailOutbox email, Exception error, Instant now) {
+        String message = String.valueOf(error.getMessage());
+        email.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        failed.increment();
+
+        if (email.getAttempts() >= maxAttempts) {
+            email.setStatus(EmailOutboxStatus.DEAD);
+            email.setBody("");
+            deadLettered.increment();
+            return;
+        }
+        long backoff = Math.min(maxBackoffSeconds, backoffSeconds << Math.min(email.getAttempts() - 1, 30));
+        email.setNextAttemptAt(now.plusSeconds(backoff));
+    }
+
+    private void refreshGauges() {
+        pending.set(repository.countByStatus(EmailOutboxStatus.PENDING));
+        dead.set(repository.countByStatus(EmailOutboxStatus.DEAD));
+    }
+}
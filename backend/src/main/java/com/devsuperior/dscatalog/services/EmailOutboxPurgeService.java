@@ -0,0 +1,72 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.entities.EmailOutboxStatus;
+import com.devsuperior.dscatalog.repositories.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Remove da tabela de saída os emails já enviados (SENT) e os descartados (DEAD) depois do período
+ * de retenção de cada um, em lotes pequenos e cada lote na sua transação, para não disputar locks
+ * com o despachante. Os DEAD ficam mais tempo para que as falhas possam ser investigadas.
+ * Antes disso, os pendentes que passaram de expiresAt viram DEAD com o corpo apagado.
+ */
+@Service
+public class EmailOutboxPurgeService {
+
+    @Value("${catalog.mail.outbox.purge.batch-size}")
+    private int batchSize;
+
+    @Value("${catalog.mail.outbox.purge.sent-retention-hours}")
+    private long sentRetentionHours;
+
+    @Value("${catalog.mail.outbox.purge.dead-retention-hours}")
+    private long deadRetentionHours;
+
+    @Autowired
+    private EmailOutboxRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${catalog.mail.outbox.purge.interval-ms}",
+            initialDelayString = "${catalog.mail.outbox.purge.interval-ms}")
+    public void scheduledPurge() {
+        expirePending();
+        purgeFinished();
+    }
+
+    public int expirePending() {
+        return transactionTemplate.execute(status -> repository.expirePending(Instant.now()));
+    }
+
+    public long purgeFinished() {
+        Instant now = Instant.now();
+        return purge(EmailOutboxStatus.SENT, now.minus(Duration.ofHours(sentRetentionHours)))
+                + purge(EmailOutboxStatus.DEAD, now.minus(Duration.ofHours(deadRetentionHours)));
+    }
+
+    private long purge(EmailOutboxStatus status, Instant before) {
+        long deleted = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(txStatus -> {
+                List<Long> ids = repository.searchFinishedIds(status, before, PageRequest.of(0, batchSize));
+                if (!ids.isEmpty()) {
+                    repository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+            deleted += batch;
+        } while (batch == batchSize);
+        return deleted;
+    }
+}
@@ -0,0 +1,37 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.entities.EmailOutbox;
+import com.devsuperior.dscatalog.repositories.EmailOutboxRepository;
+import com.devsuperior.dscatalog.services.events.EmailQueuedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Enfileira emails na tabela de saída, dentro da transação de quem chama: o email só existe
+ * se a operação que o originou for confirmada, e a requisição não espera pelo SMTP.
+ */
+@Service
+public class EmailOutboxService {
+
+    @Autowired
+    private EmailOutboxRepository repository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void enqueue(String to, String subject, String body) {
+        enqueue(to, subject, body, null);
+    }
+
+    // Depois de expiresAt o email não é mais enviado e o corpo é apagado (EmailOutboxPurgeService)
+    @Transactional
+    public void enqueue(String to, String subject, String body, Instant expiresAt) {
+        EmailOutbox entity = repository.save(new EmailOutbox(to, subject, body, expiresAt));
+        eventPublisher.publishEvent(new EmailQueuedEvent(entity.getId()));
+    }
+}
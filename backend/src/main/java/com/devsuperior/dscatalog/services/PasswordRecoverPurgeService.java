@@ -0,0 +1,52 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.repositories.PasswordRecoverRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Remove os tokens de recuperação de senha vencidos em lotes pequenos, cada um na sua transação,
+ * para não segurar locks sobre a tabela enquanto novos tokens são criados e consumidos.
+ */
+@Service
+public class PasswordRecoverPurgeService {
+
+    @Value("${email.password-recover.purge.batch-size}")
+    private int batchSize;
+
+    @Autowired
+    private PasswordRecoverRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${email.password-recover.purge.interval-ms}",
+            initialDelayString = "${email.password-recover.purge.interval-ms}")
+    public void scheduledPurge() {
+        purgeExpired();
+    }
+
+    public long purgeExpired() {
+        Instant now = Instant.now();
+        long deleted = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                List<Long> ids = repository.searchExpiredIds(now, PageRequest.of(0, batchSize));
+                if (!ids.isEmpty()) {
+                    repository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+            deleted += batch;
+        } while (batch == batchSize);
+        return deleted;
+    }
+}
@@ -0,0 +1,107 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.BulkUpdateResultDTO;
+import com.devsuperior.dscatalog.dto.ProductBulkUpdateDTO;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.services.events.ProductsUpdatedEvent;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aplica uma alteração a todos os produtos de um filtro com um único UPDATE, em vez de
+ * carregar e salvar produto por produto. Cada linha alterada tem a versão incrementada,
+ * o que também invalida os ETags dos produtos.
+ */
+@Service
+public class ProductBulkUpdateService {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public BulkUpdateResultDTO update(ProductBulkUpdateDTO dto) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> changes = new ArrayList<>();
+        List<String> filters = new ArrayList<>();
+
+        // Monta o SET apenas com as alterações informadas
+        if (dto.getPrice() != null && dto.getPriceFactor() != null) {
+            throw new BadRequestException("Informe price ou priceFactor, não ambos");
+        }
+        if (dto.getPrice() != null) {
+            changes.add("price = :price");
+            params.addValue("price", dto.getPrice());
+        }
+        if (dto.getPriceFactor() != null) {
+            changes.add("price = ROUND(CAST(price * :priceFactor AS NUMERIC), 2)");
+            params.addValue("priceFactor", dto.getPriceFactor());
+        }
+        if (dto.getNewImgUrlPrefix() != null) {
+            String prefix = dto.getImgUrlPrefix() == null ? "" : dto.getImgUrlPrefix();
+            changes.add("""
+                    img_url = CASE WHEN LEFT(img_url, :prefixLength) = :imgUrlPrefix
+                    THEN CONCAT(:newImgUrlPrefix, SUBSTRING(img_url, :prefixLength + 1))
+                    ELSE img_url END""");
+            params.addValue("prefixLength", prefix.length());
+            params.addValue("imgUrlPrefix", prefix);
+            params.addValue("newImgUrlPrefix", dto.getNewImgUrlPrefix());
+        }
+        if (changes.isEmpty()) {
+            throw new BadRequestException("Nenhuma alteração informada");
+        }
+
+        // Monta o WHERE; sem nenhum filtro a alteração atingiria o catálogo inteiro
+        if (!dto.getIds().isEmpty()) {
+            filters.add("id IN (:ids)");
+            params.addValue("ids", dto.getIds());
+        }
+        if (!dto.getCategoryIds().isEmpty()) {
+            filters.add("id IN (SELECT product_id FROM tb_product_category WHERE category_id IN (:categoryIds))");
+            params.addValue("categoryIds", dto.getCategoryIds());
+        }
+        if (dto.getName() != null && !dto.getName().isBlank()) {
+            filters.add("LOWER(name) LIKE LOWER(CONCAT('%', :name, '%'))");
+            params.addValue("name", dto.getName().trim());
+        }
+        if (filters.isEmpty()) {
+            throw new BadRequestException("Informe ao menos um filtro: ids, categoryIds ou name");
+        }
+
+        changes.add("version = version + 1");
+        changes.add("updated_at = :now");
+        params.addValue("now", LocalDateTime.ofInstant(Instant.now(), ZoneOffset.UTC));
+
+        String sql = "UPDATE tb_product SET " + String.join(", ", changes) + " WHERE " + String.join(" AND ", filters);
+        int affected = jdbcTemplate.update(sql, params);
+
+        if (affected > 0) {
+            eventPublisher.publishEvent(new ProductsUpdatedEvent(affected));
+        }
+        return new BulkUpdateResultDTO(affected);
+    }
+
+    // O UPDATE não passa pelo Hibernate, então as entradas de Product no cache L2 ficaram velhas
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsUpdated(ProductsUpdatedEvent event) {
+        entityManagerFactory.getCache().evict(Product.class);
+    }
+}
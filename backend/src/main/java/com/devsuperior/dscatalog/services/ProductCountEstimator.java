@@ -0,0 +1,55 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mantém contagens de busca de produtos em cache por um tempo limitado,
+ * usadas quando o cliente pede total=estimate.
+ */
+@Component
+public class ProductCountEstimator {
+
+    private static final int MAX_ENTRIES = 1000;
+
+    @Value("${catalog.products.count-cache.ttl-seconds}")
+    private Long ttlSeconds;
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public long estimate(List<Long> categoryIds, String name) {
+        return estimate(categoryIds, false, name);
+    }
+
+    // matchAll conta só os produtos presentes em todas as categorias
+    public long estimate(List<Long> categoryIds, boolean matchAll, String name) {
+        String key = categoryIds.stream().sorted().toList() + (matchAll ? "|all|" : "|") + name.toLowerCase();
+        long now = System.currentTimeMillis();
+
+        CachedCount cached = counts.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.count;
+        }
+
+        long count = matchAll
+                ? repository.countProductsInAllCategories(categoryIds, categoryIds.size(), name)
+                : repository.countProducts(categoryIds, name);
+        if (counts.size() >= MAX_ENTRIES) {
+            counts.clear();
+        }
+        counts.put(key, new CachedCount(count, now + ttlSeconds * 1000L));
+        return count;
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
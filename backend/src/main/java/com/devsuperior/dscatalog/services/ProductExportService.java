@@ -0,0 +1,151 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ExportFormat;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.projections.ProductExportProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.util.Utils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Exporta o catálogo lendo os produtos por cursor e escrevendo cada um direto na saída,
+ * sem acumular linhas em memória nem entidades no contexto de persistência.
+ */
+@Service
+public class ProductExportService {
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long export(String categoryId, String name, ExportFormat format, OutputStream out) throws IOException {
+        List<Long> categoryIds = ProductService.parseCategoryIds(categoryId);
+
+        try (Stream<ProductExportProjection> rows = repository.streamProductExport(categoryIds, name.trim())) {
+            ProductRows products = new ProductRows(rows.iterator());
+            return format == ExportFormat.CSV ? writeCsv(products, out) : writeNdjson(products, out);
+        }
+    }
+
+    private long writeNdjson(ProductRows products, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            for (ProductDTO dto = products.next(); dto != null; dto = products.next()) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", dto.getId());
+                generator.writeStringField("name", dto.getName());
+                generator.writeStringField("description", dto.getDescription());
+                generator.writeObjectField("price", dto.getPrice());
+                generator.writeStringField("imgUrl", dto.getImgUrl());
+                generator.writeStringField("date", dto.getDate() == null ? null : dto.getDate().toString());
+                generator.writeArrayFieldStart("categories");
+                for (CategoryDTO category : dto.getCategories()) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", category.getId());
+                    generator.writeStringField("name", category.getName());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(ProductRows products, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,name,description,price,imgUrl,date,categoryIds,categoryNames\r\n");
+
+        for (ProductDTO dto = products.next(); dto != null; dto = products.next()) {
+            writer.write(String.valueOf(dto.getId()));
+            writer.write(',');
+            writer.write(csv(dto.getName()));
+            writer.write(',');
+            writer.write(csv(dto.getDescription()));
+            writer.write(',');
+            writer.write(dto.getPrice() == null ? "" : dto.getPrice().toString());
+            writer.write(',');
+            writer.write(csv(dto.getImgUrl()));
+            writer.write(',');
+            writer.write(dto.getDate() == null ? "" : dto.getDate().toString());
+            writer.write(',');
+            writer.write(csv(dto.getCategories().stream()
+                    .map(category -> String.valueOf(category.getId())).collect(Collectors.joining(";"))));
+            writer.write(',');
+            writer.write(csv(dto.getCategories().stream()
+                    .map(CategoryDTO::getName).collect(Collectors.joining(";"))));
+            writer.write("\r\n");
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    // As linhas chegam ordenadas por produto; agrupa as categorias consecutivas do mesmo id
+    private static class ProductRows {
+
+        private final Iterator<ProductExportProjection> rows;
+        private ProductExportProjection pending;
+
+        ProductRows(Iterator<ProductExportProjection> rows) {
+            this.rows = rows;
+            this.pending = rows.hasNext() ? rows.next() : null;
+        }
+
+        ProductDTO next() {
+            if (pending == null) {
+                return null;
+            }
+
+            ProductExportProjection row = pending;
+            pending = null;
+            ProductDTO dto = new ProductDTO(row.getId(), row.getName(), row.getDescription(), row.getPrice(),
+                    row.getImgUrl(), Utils.toInstant(row.getDate()));
+            dto.getCategories().add(new CategoryDTO(row.getCategoryId(), row.getCategoryName()));
+
+            while (rows.hasNext()) {
+                ProductExportProjection candidate = rows.next();
+                if (!candidate.getId().equals(dto.getId())) {
+                    pending = candidate;
+                    break;
+                }
+                dto.getCategories().add(new CategoryDTO(candidate.getCategoryId(), candidate.getCategoryName()));
+            }
+            return dto;
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,242 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ImportErrorDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductImportReportDTO;
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductsChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * Importação em lote de produtos. Lê um array JSON ou NDJSON em streaming, valida cada registro,
+ * resolve as categorias de cada bloco em uma única query e grava produtos e vínculos em batches JDBC,
+ * com um commit por bloco. O IDENTITY do Product impede o batch de inserts do Hibernate, por isso
+ * a gravação não passa pelo EntityManager.
+ */
+@Service
+public class ProductImportService {
+
+    private static final String INSERT_PRODUCT = """
+            INSERT INTO tb_product (name, description, price, img_url, date, version, updated_at)
+            VALUES (?, ?, ?, ?, ?, 0, ?)
+            """;
+
+    private static final String INSERT_PRODUCT_CATEGORY =
+            "INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)";
+
+    @Value("${catalog.products.import.chunk-size}")
+    private int chunkSize;
+
+    @Value("${catalog.products.import.max-errors}")
+    private int maxErrors;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public ProductImportReportDTO importProducts(InputStream in) throws IOException {
+        ProductImportReportDTO report = new ProductImportReportDTO();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+
+        // Um array JSON na raiz é percorrido elemento a elemento, assim como as linhas de um NDJSON
+        try (MappingIterator<ProductDTO> records = objectMapper.readerFor(ProductDTO.class).readValues(in)) {
+            long rowNumber = 0;
+            while (true) {
+                ProductDTO dto;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    rowNumber++;
+                    dto = records.nextValue();
+                }
+                catch (JsonProcessingException e) {
+                    // Depois de um JSON malformado não há como achar o início do próximo registro
+                    report.setReceived(rowNumber);
+                    report.setFailed(report.getFailed() + 1);
+                    addError(report, new ImportErrorDTO(rowNumber, null, "JSON inválido: " + e.getOriginalMessage()));
+                    break;
+                }
+
+                report.setReceived(rowNumber);
+                chunk.add(new Row(rowNumber, dto));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+        return report;
+    }
+
+    private void importChunk(List<Row> chunk, ProductImportReportDTO report) {
+        List<Row> valid = validate(chunk, report);
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = insertProducts(valid);
+            insertProductCategories(valid, ids);
+
+            List<ProductChangedEvent> changes = new ArrayList<>(valid.size());
+            for (int i = 0; i < valid.size(); i++) {
+                ProductDTO dto = valid.get(i).dto();
+                changes.add(new ProductChangedEvent(ids.get(i), dto.getName(), categoryIds(dto), Set.of()));
+            }
+            eventPublisher.publishEvent(new ProductsChangedEvent(changes));
+        });
+
+        report.setImported(report.getImported() + valid.size());
+    }
+
+    private List<Row> validate(List<Row> chunk, ProductImportReportDTO report) {
+
+        // Resolve todas as categorias referenciadas no bloco com uma única consulta
+        Set<Long> referenced = new HashSet<>();
+        chunk.forEach(row -> referenced.addAll(categoryIds(row.dto())));
+        referenced.remove(null);
+        Set<Long> existing = referenced.isEmpty() ? Set.of() : categoryRepository.searchExistingIds(referenced);
+
+        List<Row> valid = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            boolean ok = true;
+
+            for (ConstraintViolation<ProductDTO> violation : validator.validate(row.dto())) {
+                addError(report, new ImportErrorDTO(row.number(), violation.getPropertyPath().toString(), violation.getMessage()));
+                ok = false;
+            }
+            for (Long categoryId : categoryIds(row.dto())) {
+                if (categoryId == null || !existing.contains(categoryId)) {
+                    addError(report, new ImportErrorDTO(row.number(), "categories", "Categoria não localizada: " + categoryId));
+                    ok = false;
+                }
+            }
+
+            if (ok) {
+                valid.add(row);
+            }
+            else {
+                report.setFailed(report.getFailed() + 1);
+            }
+        }
+        return valid;
+    }
+
+    private List<Long> insertProducts(List<Row> rows) {
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        Timestamp now = Timestamp.from(Instant.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_PRODUCT, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ProductDTO dto = rows.get(i).dto();
+                        ps.setString(1, dto.getName());
+                        ps.setString(2, dto.getDescription());
+                        ps.setObject(3, dto.getPrice(), Types.DOUBLE);
+                        ps.setString(4, dto.getImgUrl());
+                        if (dto.getDate() != null) {
+                            ps.setTimestamp(5, Timestamp.from(dto.getDate()), utc);
+                        }
+                        else {
+                            ps.setNull(5, Types.TIMESTAMP);
+                        }
+                        ps.setTimestamp(6, now, utc);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keys);
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Map<String, Object> key : keys.getKeyList()) {
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    private void insertProductCategories(List<Row> rows, List<Long> ids) {
+        List<Object[]> links = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            for (Long categoryId : categoryIds(rows.get(i).dto())) {
+                links.add(new Object[] {ids.get(i), categoryId});
+            }
+        }
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT_CATEGORY, links);
+        }
+    }
+
+    // O relatório guarda só os primeiros erros; failed continua contando todas as linhas
+    private void addError(ProductImportReportDTO report, ImportErrorDTO error) {
+        if (report.getErrors().size() < maxErrors) {
+            report.getErrors().add(error);
+        }
+    }
+
+    private static Set<Long> categoryIds(ProductDTO dto) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (dto.getCategories() != null) {
+            for (CategoryDTO category : dto.getCategories()) {
+                ids.add(category == null ? null : category.getId());
+            }
+        }
+        return ids;
+    }
+
+    private record Row(long number, ProductDTO dto) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.controllers.ProductController;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriTemplate;
+
+import java.lang.reflect.AnnotatedElement;
+
+/**
+ * Monta os links HATEOAS das listagens de produtos a partir de templates lidos uma única vez
+ * dos mapeamentos do ProductController, sem criar proxies do controller a cada produto.
+ */
+@Component
+public class ProductLinkFactory {
+
+    private static final String DEFAULT_BASE_URI = "http://localhost";
+
+    private final String collectionPath;
+    private final UriTemplate itemTemplate;
+
+    public ProductLinkFactory() {
+        collectionPath = mappingPath(ProductController.class);
+        itemTemplate = new UriTemplate(collectionPath
+                + mappingPath(ReflectionUtils.findMethod(ProductController.class, "findById", Long.class, WebRequest.class)));
+    }
+
+    /**
+     * Resolve a URI base e o link self da requisição atual uma vez por página.
+     */
+    public PageLinks forCurrentRequest() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes) {
+            String baseUri = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+            String self = ServletUriComponentsBuilder.fromCurrentRequest().toUriString();
+            return new PageLinks(baseUri, Link.of(self, IanaLinkRelations.SELF));
+        }
+        return new PageLinks(DEFAULT_BASE_URI, Link.of(DEFAULT_BASE_URI + collectionPath, IanaLinkRelations.SELF));
+    }
+
+    public Link byId(Long id, String rel) {
+        return forCurrentRequest().byId(id, rel);
+    }
+
+    private static String mappingPath(AnnotatedElement element) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class);
+        return mapping != null && mapping.path().length > 0 ? mapping.path()[0] : "";
+    }
+
+    public class PageLinks {
+
+        private final String baseUri;
+        private final Link self;
+
+        private PageLinks(String baseUri, Link self) {
+            this.baseUri = baseUri;
+            this.self = self;
+        }
+
+        public Link byId(Long id, String rel) {
+            return Link.of(baseUri + itemTemplate.expand(id), rel);
+        }
+
+        public ProductDTO addTo(ProductDTO dto) {
+            return dto.add(self).add(byId(dto.getId(), "Get products by Id"));
+        }
+    }
+}
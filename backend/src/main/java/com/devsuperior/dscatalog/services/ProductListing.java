@@ -0,0 +1,36 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.CategoryFacetDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Página da listagem de produtos com as facets opcionais e o ETag fraco do conteúdo,
+ * derivado dos digests guardados no cache de páginas.
+ */
+public class ProductListing {
+
+    private final Slice<ProductDTO> page;
+    private final List<CategoryFacetDTO> facets;
+    private final String etag;
+
+    public ProductListing(Slice<ProductDTO> page, List<CategoryFacetDTO> facets, String tag) {
+        this.page = page;
+        this.facets = facets;
+        this.etag = "W/\"" + tag + "\"";
+    }
+
+    public Slice<ProductDTO> getPage() {
+        return page;
+    }
+
+    public List<CategoryFacetDTO> getFacets() {
+        return facets;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -0,0 +1,223 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.CategoryFacetDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductRangeFilter;
+import com.devsuperior.dscatalog.dto.TotalMode;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductsChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductsUpdatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache limitado (tamanho + TTL) das páginas de busca de produtos, sem links HATEOAS.
+ * Cada escrita de produto invalida apenas as páginas filtradas pelas categorias afetadas
+ * e as páginas sem filtro de categoria. As contagens por categoria (facets) dependem de
+ * todo o catálogo, por isso qualquer escrita as descarta.
+ * Cada página guarda o digest do próprio conteúdo, calculado uma vez na busca, que serve de ETag
+ * da listagem sem nenhuma consulta extra ao banco.
+ * Com réplicas de leitura, logo após uma invalidação a réplica ainda pode devolver a versão antiga;
+ * durante a janela de read-your-writes nenhuma busca volta para o cache.
+ */
+@Component
+public class ProductPageCache {
+
+    public static final long NO_CACHE = -1;
+
+    private final boolean enabled;
+    private final Cache<Key, CachedPage> cache;
+    private final Cache<String, List<CategoryFacetDTO>> facets;
+    private final AtomicLong generation = new AtomicLong();
+    private final long replicaLagNanos;
+    private volatile long invalidatedAt;
+
+    public ProductPageCache(@Value("${catalog.products.page-cache.enabled}") boolean enabled,
+                            @Value("${catalog.products.page-cache.max-size}") long maxSize,
+                            @Value("${catalog.products.page-cache.ttl-seconds}") long ttlSeconds,
+                            @Value("${catalog.datasource.replicas.enabled}") boolean replicasEnabled,
+                            @Value("${catalog.datasource.replicas.read-your-writes-seconds}") long replicaLagSeconds,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.replicaLagNanos = replicasEnabled ? Duration.ofSeconds(replicaLagSeconds).toNanos() : 0;
+        this.invalidatedAt = System.nanoTime() - replicaLagNanos;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.facets = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "productPages");
+        CaffeineCacheMetrics.monitor(meterRegistry, facets, "productFacets");
+    }
+
+    public Key key(List<Long> categoryIds, boolean matchAll, String name, TotalMode total, Pageable pageable) {
+        return key(categoryIds, matchAll, name, ProductRangeFilter.NONE, total, pageable);
+    }
+
+    public Key key(List<Long> categoryIds, boolean matchAll, String name, ProductRangeFilter range, TotalMode total,
+                   Pageable pageable) {
+        List<Long> sorted = categoryIds.stream().sorted().toList();
+        return new Key(sorted, matchAll, name.trim().toLowerCase(), range, total, pageable.getPageNumber(),
+                pageable.getPageSize(), pageable.getSort().toString());
+    }
+
+    public CachedPage get(Key key) {
+        return enabled ? cache.getIfPresent(key) : null;
+    }
+
+    /**
+     * Geração atual do cache. Deve ser lida antes de executar a busca e repassada ao put,
+     * que descarta o resultado se alguma invalidação aconteceu nesse intervalo. Dentro da janela
+     * de atraso das réplicas devolve NO_CACHE, que nenhum put aceita.
+     */
+    public long generation() {
+        // Lê a geração antes do instante: a invalidação grava o instante antes de incrementá-la
+        long current = generation.get();
+        if (replicaLagNanos > 0 && System.nanoTime() - invalidatedAt < replicaLagNanos) {
+            return NO_CACHE;
+        }
+        return current;
+    }
+
+    // Confere a geração depois de gravar: uma invalidação concorrente ou já incrementou a geração
+    // (e a página sai aqui) ou só percorre o cache depois da gravação (e a remove por lá)
+    public void put(Key key, CachedPage page, long expectedGeneration) {
+        if (enabled && generation.get() == expectedGeneration) {
+            cache.put(key, page);
+            if (generation.get() != expectedGeneration) {
+                cache.asMap().remove(key, page);
+            }
+        }
+    }
+
+    public List<CategoryFacetDTO> getFacets(String name) {
+        return enabled ? facets.getIfPresent(name.trim().toLowerCase()) : null;
+    }
+
+    public void putFacets(String name, List<CategoryFacetDTO> counts, long expectedGeneration) {
+        if (enabled && generation.get() == expectedGeneration) {
+            String key = name.trim().toLowerCase();
+            facets.put(key, counts);
+            if (generation.get() != expectedGeneration) {
+                facets.asMap().remove(key, counts);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        invalidatedAt = System.nanoTime();
+        generation.incrementAndGet();
+        cache.invalidateAll();
+        facets.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        invalidate(event.getChanges());
+    }
+
+    private void invalidate(List<ProductChangedEvent> changes) {
+        Set<Long> affected = new HashSet<>();
+        for (ProductChangedEvent change : changes) {
+            affected.addAll(change.getCategoryIds());
+            affected.addAll(change.getPreviousCategoryIds());
+        }
+
+        invalidatedAt = System.nanoTime();
+        generation.incrementAndGet();
+        facets.invalidateAll();
+        cache.asMap().keySet().removeIf(key -> key.categoryIds().isEmpty()
+                || key.categoryIds().stream().anyMatch(affected::contains));
+    }
+
+    // Preços e imagens alterados em lote podem estar em qualquer página
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsUpdated(ProductsUpdatedEvent event) {
+        invalidateAll();
+    }
+
+    // Renomear uma categoria altera o ProductDTO de qualquer página que a contenha
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidateAll();
+    }
+
+    // Digest das contagens por categoria; a lista é pequena, então é calculado a cada requisição
+    public static String digest(List<CategoryFacetDTO> counts) {
+        StringBuilder sb = new StringBuilder();
+        for (CategoryFacetDTO facet : counts) {
+            sb.append(facet.getId()).append('|').append(facet.getName()).append('|').append(facet.getCount()).append('\n');
+        }
+        return sha256(sb);
+    }
+
+    private static String sha256(CharSequence content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 12);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Página sem links com o digest do conteúdo: produtos, categorias, posição e totais.
+     */
+    public record CachedPage(Slice<ProductDTO> page, String digest) {
+
+        public static CachedPage of(Slice<ProductDTO> page) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(page.getNumber()).append('|').append(page.getSize()).append('|').append(page.hasNext());
+            if (page instanceof Page<ProductDTO> counted) {
+                sb.append('|').append(counted.getTotalElements());
+            }
+            sb.append('\n');
+            for (ProductDTO dto : page.getContent()) {
+                sb.append(dto.getId()).append('|').append(dto.getName()).append('|').append(dto.getDescription())
+                        .append('|').append(dto.getPrice()).append('|').append(dto.getImgUrl())
+                        .append('|').append(dto.getDate());
+                for (CategoryDTO category : dto.getCategories()) {
+                    sb.append('|').append(category.getId()).append(':').append(category.getName());
+                }
+                sb.append('\n');
+            }
+            return new CachedPage(page, sha256(sb));
+        }
+    }
+
+    public record Key(List<Long> categoryIds, boolean matchAll, String name, ProductRangeFilter range,
+                      TotalMode total, int page, int size, String sort) {
+    }
+}
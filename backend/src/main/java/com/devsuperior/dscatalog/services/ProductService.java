@@ -5,78 +5,348 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 import com.devsuperior.dscatalog.controllers.ProductController;
 import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.CategoryFacetDTO;
+import com.devsuperior.dscatalog.dto.CategoryMatch;
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+import com.devsuperior.dscatalog.dto.LinkMode;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductRangeFilter;
+import com.devsuperior.dscatalog.dto.ProductSort;
+import com.devsuperior.dscatalog.dto.TotalMode;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.projections.ProductListingProjection;
 import com.devsuperior.dscatalog.projections.ProductProjection;
+import com.devsuperior.dscatalog.projections.ProductVersionProjection;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.ProductLinkFactory.PageLinks;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.services.search.CategoryBitmapIndex;
+import com.devsuperior.dscatalog.services.search.ProductSearchIndex;
+import com.devsuperior.dscatalog.util.ProductCursor;
 import com.devsuperior.dscatalog.util.Utils;
 import jakarta.persistence.EntityNotFoundException;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
 
+    @Value("${catalog.products.single-query.enabled}")
+    private boolean singleQuery;
+
+    @Value("${catalog.search.category-bitmap.max-in-ids}")
+    private int maxBitmapInIds;
+
+    @Value("${catalog.search.category-bitmap.walk-chunk}")
+    private int bitmapWalkChunk;
+
+    @Value("${spring.data.web.pageable.max-page-size}")
+    private int maxPageSize;
+
     @Autowired
     private ProductRepository repository;
 
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductCountEstimator countEstimator;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private CategoryBitmapIndex categoryBitmapIndex;
+
+    @Autowired
+    private ProductLinkFactory linkFactory;
+
+    @Autowired
+    private ProductPageCache pageCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional(readOnly = true)
     public Page<ProductDTO> findAllPaged(String categoryId, String name, Pageable pageable) {
+        // Sem filtro quando chamado fora do controller, que já aplica os mesmos padrões
+        return (Page<ProductDTO>) findAllPaged(categoryId != null ? categoryId : "0", CategoryMatch.ANY,
+                name != null ? name : "", TotalMode.EXACT, LinkMode.ALL, pageable);
+    }
 
-        // Prepara o filtro por categorias
-        List<Long> categoryIds = new ArrayList<>();
-        if (!"0".equals(categoryId)) {
-            categoryIds = Arrays.stream(categoryId.split(","))
-                    .map(Long::parseLong)
-                    .toList();
+    @Transactional(readOnly = true)
+    public Slice<ProductDTO> findAllPaged(String categoryId, CategoryMatch match, String name, TotalMode total,
+                                          LinkMode linkMode, Pageable pageable) {
+        return findAllPaged(categoryId, match, name, ProductRangeFilter.NONE, total, linkMode, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ProductDTO> findAllPaged(String categoryId, CategoryMatch match, String name, ProductRangeFilter range,
+                                          TotalMode total, LinkMode linkMode, Pageable pageable) {
+        return withLinks(findPage(categoryId, match, name, range, total, pageable).page(), linkMode);
+    }
+
+    // O ETag vem dos digests da página (guardado no cache) e das facets, sem consulta extra ao banco
+    @Transactional(readOnly = true)
+    public ProductListing findListing(String categoryId, CategoryMatch match, String name, ProductRangeFilter range,
+                                      TotalMode total, LinkMode linkMode, boolean categoryFacets, Pageable pageable) {
+        ProductPageCache.CachedPage cached = findPage(categoryId, match, name, range, total, pageable);
+        List<CategoryFacetDTO> facets = categoryFacets ? findCategoryFacets(name) : null;
+
+        String tag = "l" + cached.digest() + (facets != null ? "-" + ProductPageCache.digest(facets) : "");
+        return new ProductListing(withLinks(cached.page(), linkMode), facets, tag);
+    }
+
+    private ProductPageCache.CachedPage findPage(String categoryId, CategoryMatch match, String name,
+                                                 ProductRangeFilter range, TotalMode total, Pageable pageable) {
+
+        // Prepara o filtro por categorias e valida a ordenação
+        List<Long> categoryIds = parseCategoryIds(categoryId);
+        boolean matchAll = match == CategoryMatch.ALL && !categoryIds.isEmpty();
+        Sort.Order order = sortOrder(pageable);
+
+        // Páginas populares saem do cache; só guarda leituras feitas em transação própria, somente leitura
+        ProductPageCache.Key key = pageCache.key(categoryIds, matchAll, name, range, total, pageable);
+        ProductPageCache.CachedPage result = pageCache.get(key);
+        if (result == null) {
+            long generation = pageCache.generation();
+            result = ProductPageCache.CachedPage.of(search(categoryIds, matchAll, name, range, order, total, pageable));
+            if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                pageCache.put(key, result, generation);
+            }
+        }
+        return result;
+    }
+
+    private Slice<ProductDTO> withLinks(Slice<ProductDTO> page, LinkMode linkMode) {
+        if (linkMode == LinkMode.NONE) {
+            return page;
+        }
+
+        // Os DTOs em cache são compartilhados, por isso os links vão em cópias
+        PageLinks links = linkFactory.forCurrentRequest();
+        return page.map(dto -> links.addTo(copyOf(dto)));
+    }
+
+    private Slice<ProductDTO> search(List<Long> categoryIds, boolean matchAll, String name, ProductRangeFilter range,
+                                     Sort.Order order, TotalMode total, Pageable pageable) {
+
+        // Faixas de preço/data e ordenações diferentes de nome crescente usam a busca pelo índice da chave de ordenação
+        ProductSort sort = ProductSort.of(order.getProperty());
+        if (!range.isEmpty() || sort != ProductSort.NAME || order.isDescending()) {
+            Slice<ProductProjection> slice = repository.searchProductsSorted(categoryIds, matchAll, name.trim(), range,
+                    sort, order.getDirection(), pageable, total != TotalMode.NONE);
+            List<ProductDTO> dtos = toDtos(slice.getContent());
+            if (slice instanceof Page<ProductProjection> page) {
+                return new PageImpl<>(dtos, pageable, page.getTotalElements());
+            }
+            return new SliceImpl<>(dtos, pageable, slice.hasNext());
+        }
+
+        // As demais queries já ordenam por nome; o Sort não pode ser anexado ao SQL nativo
+        pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+
+        // Filtra pelo índice em memória quando habilitado, sem consultar o banco
+        if (searchIndex.isReady()) {
+            Page<ProductProjection> page = searchIndex.search(categoryIds, matchAll, name.trim(), pageable);
+            return toResult(page, total);
+        }
+
+        // Resolve as categorias pelos bitmaps e busca a página apenas pelos ids
+        if (categoryBitmapIndex.isReady() && !categoryIds.isEmpty()) {
+            return searchByBitmap(categoryBitmapIndex.resolve(categoryIds, matchAll), categoryIds, matchAll,
+                    name.trim(), total, pageable);
+        }
+
+        if (matchAll) {
+            if (total == TotalMode.EXACT) {
+                return toResult(repository.searchProductsInAllCategories(
+                        categoryIds, categoryIds.size(), name.trim(), pageable), total);
+            }
+            Slice<ProductProjection> slice = repository.searchProductsInAllCategoriesSlice(
+                    categoryIds, categoryIds.size(), name.trim(), pageable);
+            return toResult(slice, total, () -> countEstimator.estimate(categoryIds, true, name.trim()));
+        }
+
+        // Página, categorias e total em uma única query
+        if (singleQuery) {
+            return findAllSingleQuery(categoryIds, name, total, pageable);
+        }
+
+        if (total != TotalMode.EXACT) {
+            // Busca size + 1 linhas sem a query de contagem
+            Slice<ProductProjection> slice = repository.searchProductsSlice(categoryIds, name.trim(), pageable);
+            List<ProductDTO> dtos = toDtos(slice.getContent());
+
+            if (total == TotalMode.NONE) {
+                return new SliceImpl<>(dtos, slice.getPageable(), slice.hasNext());
+            }
+            long estimated = countEstimator.estimate(categoryIds, name.trim());
+            return new PageImpl<>(dtos, slice.getPageable(), estimated);
         }
 
         // Busca paginada por projeções
         Page<ProductProjection> page = repository.searchProducts(categoryIds, name.trim(), pageable);
+        return toResult(page, total);
+    }
 
-        // Pega os IDs para buscar os produtos completos com categorias
-        List<Long> productIds = page.map(ProductProjection::getId).toList();
-        List<Product> entities = repository.searchProductsWithCategories(productIds);
+    /*
+     * Conjuntos de até maxBitmapInIds ids vão para o banco como filtro IN. Nos maiores a lista IN custa mais
+     * que ler tb_product em ordem de nome mantendo só os ids do bitmap (CategoryBitmapBenchmark); quanto mais
+     * denso o conjunto, menos linhas são lidas. Sem filtro de nome o total é a cardinalidade do bitmap.
+     */
+    private Slice<ProductDTO> searchByBitmap(Roaring64Bitmap bitmap, List<Long> categoryIds, boolean matchAll,
+                                             String name, TotalMode total, Pageable pageable) {
+        long cardinality = bitmap.getLongCardinality();
+        LongSupplier count = () -> {
+            if (name.isEmpty()) {
+                return cardinality;
+            }
+            if (total == TotalMode.ESTIMATE) {
+                return countEstimator.estimate(categoryIds, matchAll, name);
+            }
+            return matchAll
+                    ? repository.countProductsInAllCategories(categoryIds, categoryIds.size(), name)
+                    : repository.countProducts(categoryIds, name);
+        };
 
-        // Reorganiza os produtos completos mantendo a ordem original
-        entities = (List<Product>) Utils.replace(page.getContent(), entities);
+        if (pageable.getOffset() >= cardinality) {
+            return toResult(new SliceImpl<>(List.of(), pageable, false), total, count);
+        }
+        if (cardinality <= maxBitmapInIds) {
+            List<Long> ids = CategoryBitmapIndex.toIds(bitmap);
+            if (total == TotalMode.EXACT && !name.isEmpty()) {
+                return toResult(repository.searchProductsByIds(ids, name, pageable), total);
+            }
+            return toResult(repository.searchProductsByIdsSlice(ids, name, pageable), total, count);
+        }
+        return toResult(walkByName(bitmap, name, pageable), total, count);
+    }
+
+    // Lê tb_product por keyset em (name, id), em blocos, até pular o offset e juntar a página mais uma linha
+    private Slice<ProductProjection> walkByName(Roaring64Bitmap bitmap, String name, Pageable pageable) {
+        long skip = pageable.getOffset();
+        int wanted = pageable.getPageSize() + 1;
+        List<ProductProjection> content = new ArrayList<>(wanted);
+
+        List<ProductProjection> chunk = repository.searchProductsByNameFirst(name, bitmapWalkChunk);
+        while (!chunk.isEmpty()) {
+            for (ProductProjection row : chunk) {
+                if (!bitmap.contains(row.getId())) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                }
+                else if (content.add(row) && content.size() == wanted) {
+                    return new SliceImpl<>(content.subList(0, pageable.getPageSize()), pageable, true);
+                }
+            }
+            if (chunk.size() < bitmapWalkChunk) {
+                break;
+            }
+            ProductProjection last = chunk.get(chunk.size() - 1);
+            chunk = repository.searchProductsByNameAfter(name, last.getName(), last.getId(), bitmapWalkChunk);
+        }
+        return new SliceImpl<>(content, pageable, false);
+    }
 
-        // Mapeia para DTOs e adiciona links HATEOAS manualmente
-        List<ProductDTO> dtos = entities.stream().map(product -> {
-            ProductDTO dto = new ProductDTO(product, product.getCategories());
+    // Contagem por categoria para o filtro de nome, em uma única query agrupada e com o mesmo cache das páginas
+    @Transactional(readOnly = true)
+    public List<CategoryFacetDTO> findCategoryFacets(String name) {
+        List<CategoryFacetDTO> facets = pageCache.getFacets(name);
+        if (facets == null) {
+            long generation = pageCache.generation();
+            facets = repository.searchCategoryFacets(name.trim()).stream()
+                    .map(row -> new CategoryFacetDTO(row.getId(), row.getName(), row.getTotal()))
+                    .toList();
+            if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                pageCache.putFacets(name, facets, generation);
+            }
+        }
+        return facets;
+    }
 
-            // Link para este próprio recurso (self)
-            dto.add(linkTo(methodOn(ProductController.class)
-                    .findAll(categoryId, name, pageable))
-                    .withSelfRel());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> findAllByCursor(String categoryId, String name, String after, int size) {
+        // O Pageable já vem limitado pelo Spring; aqui o limite vale também para size + 1 não estourar
+        if (size < 1 || size > maxPageSize) {
+            throw new BadRequestException("Tamanho de página inválido");
+        }
 
-            // Link para buscar produtos por Id
-            dto.add(linkTo(methodOn(ProductController.class)
-                    .findById(product.getId()))
-                    .withRel("Get products by Id"));
+        List<Long> categoryIds = parseCategoryIds(categoryId);
 
-            return dto;
-        }).toList();
+        // Busca size + 1 itens a partir do cursor para saber se existe próxima página
+        List<ProductProjection> rows;
+        if (after == null || after.isBlank()) {
+            rows = repository.searchProductsFirst(categoryIds, name.trim(), size + 1);
+        }
+        else {
+            ProductCursor cursor = ProductCursor.decode(after);
+            rows = repository.searchProductsAfter(categoryIds, name.trim(), cursor.getName(), cursor.getId(), size + 1);
+        }
 
-        // 6. Retorna a página com os DTOs com HATEOAS
-        return new PageImpl<>(dtos, page.getPageable(), page.getTotalElements());
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            ProductProjection last = rows.get(size - 1);
+            next = new ProductCursor(last.getName(), last.getId()).encode();
+        }
+
+        List<Long> productIds = rows.stream().map(ProductProjection::getId).toList();
+        List<Product> entities = repository.searchProductsWithCategories(productIds);
+        entities = (List<Product>) Utils.replace(rows, entities);
+
+        PageLinks links = linkFactory.forCurrentRequest();
+        List<ProductDTO> dtos = entities.stream().map(product -> new ProductDTO(product, product.getCategories())
+                .add(links.byId(product.getId(), "Get products by Id")))
+                .toList();
+
+        return new CursorPageDTO<>(dtos, size, next);
+    }
+
+    // Consulta apenas id e versão; as categorias entram pelo snapshot, já em memória
+    @Transactional(readOnly = true)
+    public ResourceValidator findValidatorById(Long id) {
+        ProductVersionProjection row = repository.searchVersion(id).orElseThrow(
+                () -> new ResourceNotFoundException("Recurso não localizado"));
+        CategorySnapshot categories = categoryService.findAllSnapshot();
+
+        String tag = "p" + id + "-" + row.getVersion() + "-" + categories.getDigest();
+        return new ResourceValidator(tag, latest(row.getUpdatedAt(), categories.getLastModified()));
     }
 
     @Transactional(readOnly = true)
@@ -85,8 +355,8 @@ public class ProductService {
                 () -> new ResourceNotFoundException("Recurso não localizado"));
         ProductDTO dto = new ProductDTO(product, product.getCategories());
 
-                dto.add(linkTo(methodOn(ProductController.class).findById(id)).withSelfRel());
-                dto.add(linkTo(methodOn(ProductController.class).findAll(null, null, null)).withRel("All products"));
+                dto.add(linkTo(methodOn(ProductController.class).findById(id, null)).withSelfRel());
+                dto.add(linkTo(methodOn(ProductController.class).findAll(null, null, null, null, null, null, null, null, null, null, null, null)).withRel("All products"));
 
         try {
             dto.add(linkTo(methodOn(ProductController.class).update(id, null)).withRel("Update product"));
@@ -102,18 +372,21 @@ public class ProductService {
         Product product = new Product();
         copyDtoToEntity(dto, product);
         product = repository.save(product);
+        eventPublisher.publishEvent(changedEvent(product, Set.of()));
         return new ProductDTO(product)
-                .add(linkTo(methodOn(ProductController.class).findById(product.getId())).withRel("Get product by Id"));
+                .add(linkFactory.byId(product.getId(), "Get product by Id"));
     }
 
     @Transactional
     public ProductDTO update(Long id, ProductDTO dto) {
         try {
             Product product = repository.getReferenceById(id);
+            Set<Long> previousCategoryIds = categoryIds(product);
             copyDtoToEntity(dto, product);
             product = repository.save(product);
+            eventPublisher.publishEvent(changedEvent(product, previousCategoryIds));
             return new ProductDTO(product)
-                    .add(linkTo(methodOn(ProductController.class).findById(product.getId())).withRel("Get product by Id"));
+                    .add(linkFactory.byId(product.getId(), "Get product by Id"));
         }
         catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Id não localizado: " + id);
@@ -125,14 +398,120 @@ public class ProductService {
         if (!repository.existsById(id)) {
             throw new ResourceNotFoundException("Id não localizado: " + id);
         }
+        Set<Long> previousCategoryIds = repository.searchCategoryIds(id);
         try {
             repository.deleteById(id);
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(id, previousCategoryIds));
         }
         catch (DataIntegrityViolationException e) {
             throw new DataBaseException("Violação de integridade");
         }
     }
 
+    private Slice<ProductDTO> findAllSingleQuery(List<Long> categoryIds, String name, TotalMode total, Pageable pageable) {
+        List<ProductListingProjection> rows = repository.searchProductListing(
+                categoryIds, name.trim(), pageable.getOffset(), pageable.getPageSize());
+
+        // Cada linha traz um par produto/categoria, já na ordem da página
+        Map<Long, ProductDTO> products = new LinkedHashMap<>();
+        for (ProductListingProjection row : rows) {
+            ProductDTO dto = products.computeIfAbsent(row.getId(), id -> new ProductDTO(id, row.getName(),
+                    row.getDescription(), row.getPrice(), row.getImgUrl(), Utils.toInstant(row.getDate())));
+            dto.getCategories().add(new CategoryDTO(row.getCategoryId(), row.getCategoryName()));
+        }
+
+        List<ProductDTO> dtos = new ArrayList<>(products.values());
+
+        // Página além do fim não traz linhas, e portanto nem o total
+        long totalElements = rows.isEmpty()
+                ? repository.countProducts(categoryIds, name.trim())
+                : rows.get(0).getTotal();
+
+        if (total == TotalMode.NONE) {
+            return new SliceImpl<>(dtos, pageable, pageable.getOffset() + dtos.size() < totalElements);
+        }
+        return new PageImpl<>(dtos, pageable, totalElements);
+    }
+
+    private Slice<ProductDTO> toResult(Page<ProductProjection> page, TotalMode total) {
+        List<ProductDTO> dtos = toDtos(page.getContent());
+
+        if (total == TotalMode.NONE) {
+            return new SliceImpl<>(dtos, page.getPageable(), page.hasNext());
+        }
+        return new PageImpl<>(dtos, page.getPageable(), page.getTotalElements());
+    }
+
+    // Só chama count quando o modo pede total
+    private Slice<ProductDTO> toResult(Slice<ProductProjection> slice, TotalMode total, LongSupplier count) {
+        List<ProductDTO> dtos = toDtos(slice.getContent());
+
+        if (total == TotalMode.NONE) {
+            return new SliceImpl<>(dtos, slice.getPageable(), slice.hasNext());
+        }
+        return new PageImpl<>(dtos, slice.getPageable(), count.getAsLong());
+    }
+
+    private List<ProductDTO> toDtos(List<ProductProjection> rows) {
+
+        // Pega os IDs para buscar os produtos completos com categorias
+        List<Long> productIds = rows.stream().map(ProductProjection::getId).toList();
+        List<Product> entities = repository.searchProductsWithCategories(productIds);
+
+        // Reorganiza os produtos completos mantendo a ordem original
+        entities = (List<Product>) Utils.replace(rows, entities);
+
+        // Mapeia para DTOs; os links HATEOAS são adicionados depois do cache
+        return entities.stream()
+                .map(product -> new ProductDTO(product, product.getCategories()))
+                .toList();
+    }
+
+    private static Sort.Order sortOrder(Pageable pageable) {
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (orders.isEmpty()) {
+            return Sort.Order.asc(ProductSort.NAME.getColumn());
+        }
+        if (orders.size() > 1) {
+            throw new BadRequestException("Ordenação permitida por apenas um campo");
+        }
+        ProductSort.of(orders.get(0).getProperty());
+        return orders.get(0);
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return a.isAfter(b) ? a : b;
+    }
+
+    private ProductDTO copyOf(ProductDTO dto) {
+        ProductDTO copy = new ProductDTO(dto.getId(), dto.getName(), dto.getDescription(), dto.getPrice(),
+                dto.getImgUrl(), dto.getDate());
+        copy.getCategories().addAll(dto.getCategories());
+        return copy;
+    }
+
+    private ProductChangedEvent changedEvent(Product product, Set<Long> previousCategoryIds) {
+        return new ProductChangedEvent(product.getId(), product.getName(), categoryIds(product), previousCategoryIds);
+    }
+
+    private Set<Long> categoryIds(Product product) {
+        return product.getCategories().stream().map(Category::getId).collect(Collectors.toSet());
+    }
+
+    static List<Long> parseCategoryIds(String categoryId) {
+        List<Long> categoryIds = new ArrayList<>();
+        if (!"0".equals(categoryId)) {
+            categoryIds = Arrays.stream(categoryId.split(","))
+                    .map(Long::parseLong)
+                    .distinct()
+                    .toList();
+        }
+        return categoryIds;
+    }
+
     private void copyDtoToEntity(ProductDTO dto, Product product) {
         product.setName(dto.getName());
         product.setDescription((dto.getDescription()));
@@ -140,10 +519,23 @@ public class ProductService {
         product.setImgUrl(dto.getImgUrl());
         product.setDate(dto.getDate());
 
-        product.getCategories().clear();
-        for (CategoryDTO catDto : dto.getCategories()) {
-            Category category = categoryRepository.getReferenceById(catDto.getId());
-            product.getCategories().add(category);
+        // Valida todas as categorias com uma única consulta
+        Set<Long> requested = dto.getCategories().stream()
+                .map(CategoryDTO::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<Long> existing = requested.isEmpty() ? Set.of() : categoryRepository.searchExistingIds(requested);
+        if (existing.size() < requested.size()) {
+            requested.removeAll(existing);
+            throw new ResourceNotFoundException("Categoria não localizada: " + requested);
+        }
+
+        // Altera apenas os vínculos que mudaram, em vez de apagar e reinserir todos
+        product.getCategories().removeIf(category -> !requested.contains(category.getId()));
+        Set<Long> current = categoryIds(product);
+        for (Long categoryId : requested) {
+            if (!current.contains(categoryId)) {
+                product.getCategories().add(categoryRepository.getReferenceById(categoryId));
+            }
         }
     }
 
@@ -0,0 +1,25 @@
+package com.devsuperior.dscatalog.services;
+
+import java.time.Instant;
+
+/**
+ * Validadores HTTP (ETag fraco e Last-Modified) de um recurso, obtidos sem carregar o recurso em si.
+ */
+public class ResourceValidator {
+
+    private final String etag;
+    private final Instant lastModified;
+
+    public ResourceValidator(String tag, Instant lastModified) {
+        this.etag = "W/\"" + tag + "\"";
+        this.lastModified = lastModified;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,17 @@
+package com.devsuperior.dscatalog.services.events;
+
+/**
+ * Publicado pelo CategoryService a cada inserção, atualização ou remoção de categoria.
+ */
+public class CategoryChangedEvent {
+
+    private final Long id;
+
+    public CategoryChangedEvent(Long id) {
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
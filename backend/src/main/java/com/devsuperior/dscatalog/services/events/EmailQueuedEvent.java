@@ -0,0 +1,17 @@
+package com.devsuperior.dscatalog.services.events;
+
+/**
+ * Publicado pelo EmailOutboxService ao gravar um email na fila; depois do commit acorda o despachante.
+ */
+public class EmailQueuedEvent {
+
+    private final Long id;
+
+    public EmailQueuedEvent(Long id) {
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
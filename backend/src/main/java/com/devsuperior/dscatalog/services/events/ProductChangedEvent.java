@@ -0,0 +1,47 @@
+package com.devsuperior.dscatalog.services.events;
+
+import java.util.Set;
+
+/**
+ * Publicado pelo ProductService a cada inserção, atualização ou remoção de produto.
+ * Em remoções, name é nulo e categoryIds é vazio. previousCategoryIds traz as categorias
+ * do produto antes da alteração (vazio em inserções).
+ */
+public class ProductChangedEvent {
+
+    private final Long id;
+    private final String name;
+    private final Set<Long> categoryIds;
+    private final Set<Long> previousCategoryIds;
+
+    public ProductChangedEvent(Long id, String name, Set<Long> categoryIds, Set<Long> previousCategoryIds) {
+        this.id = id;
+        this.name = name;
+        this.categoryIds = categoryIds;
+        this.previousCategoryIds = previousCategoryIds;
+    }
+
+    public static ProductChangedEvent deleted(Long id, Set<Long> previousCategoryIds) {
+        return new ProductChangedEvent(id, null, Set.of(), previousCategoryIds);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public Set<Long> getPreviousCategoryIds() {
+        return previousCategoryIds;
+    }
+
+    public boolean isDeleted() {
+        return name == null;
+    }
+}
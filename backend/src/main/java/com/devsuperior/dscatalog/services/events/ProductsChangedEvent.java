@@ -0,0 +1,20 @@
+package com.devsuperior.dscatalog.services.events;
+
+import java.util.List;
+
+/**
+ * Agrupa as alterações de uma operação em lote para que os caches e índices
+ * sejam atualizados uma única vez por transação, e não uma vez por produto.
+ */
+public class ProductsChangedEvent {
+
+    private final List<ProductChangedEvent> changes;
+
+    public ProductsChangedEvent(List<ProductChangedEvent> changes) {
+        this.changes = changes;
+    }
+
+    public List<ProductChangedEvent> getChanges() {
+        return changes;
+    }
+}
@@ -0,0 +1,19 @@
+package com.devsuperior.dscatalog.services.events;
+
+/**
+ * Publicado após uma atualização em lote de atributos (preço, imagem) feita direto no banco.
+ * Nomes e categorias não mudam, então os índices de busca continuam válidos; apenas os
+ * caches de produtos precisam ser descartados.
+ */
+public class ProductsUpdatedEvent {
+
+    private final long affected;
+
+    public ProductsUpdatedEvent(long affected) {
+        this.affected = affected;
+    }
+
+    public long getAffected() {
+        return affected;
+    }
+}
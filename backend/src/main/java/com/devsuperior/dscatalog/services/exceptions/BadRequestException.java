@@ -0,0 +1,8 @@
+package com.devsuperior.dscatalog.services.exceptions;
+
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String msg) {
+        super(msg);
+    }
+}
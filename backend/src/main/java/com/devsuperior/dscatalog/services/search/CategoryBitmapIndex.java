@@ -0,0 +1,151 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.projections.ProductCategoryIdProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductsChangedEvent;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmaps comprimidos (Roaring, 64 bits como os ids) categoria -> ids de produto, montados a partir de
+ * tb_product_category.
+ * Resolve filtros por categoria com união (qualquer categoria) ou interseção (todas as categorias)
+ * sem o JOIN + DISTINCT no banco. Alterações que chegam durante a carga inicial ficam na fila e são
+ * aplicadas em seguida. Fica desligado por padrão (catalog.search.category-bitmap.enabled).
+ */
+@Component
+public class CategoryBitmapIndex {
+
+    @Value("${catalog.search.category-bitmap.enabled}")
+    private boolean enabled;
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Roaring64Bitmap> bitmaps = new HashMap<>();
+    private final List<ProductChangedEvent> pending = new ArrayList<>();
+    private boolean loading;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+
+        // A partir daqui as alterações confirmadas vão para a fila até a carga terminar
+        lock.writeLock().lock();
+        try {
+            loading = true;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Roaring64Bitmap> loaded = new HashMap<>();
+        for (ProductCategoryIdProjection row : repository.searchProductCategoryIds()) {
+            loaded.computeIfAbsent(row.getCategoryId(), id -> new Roaring64Bitmap()).addLong(row.getProductId());
+        }
+        loaded.values().forEach(Roaring64Bitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            bitmaps.clear();
+            bitmaps.putAll(loaded);
+
+            // Reaplicar uma alteração que a carga já viu não muda nada: apply remove e adiciona de novo
+            pending.forEach(this::apply);
+            pending.clear();
+            loading = false;
+            ready = true;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        onChanges(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        onChanges(event.getChanges());
+    }
+
+    private void onChanges(List<ProductChangedEvent> changes) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                changes.forEach(this::apply);
+            }
+            else if (loading) {
+                pending.addAll(changes);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(ProductChangedEvent event) {
+        long productId = event.getId();
+        bitmaps.values().forEach(bitmap -> bitmap.removeLong(productId));
+        for (Long categoryId : event.getCategoryIds()) {
+            bitmaps.computeIfAbsent(categoryId, id -> new Roaring64Bitmap()).addLong(productId);
+        }
+    }
+
+    public Roaring64Bitmap resolve(List<Long> categoryIds, boolean matchAll) {
+        Roaring64Bitmap result = null;
+
+        lock.readLock().lock();
+        try {
+            for (Long categoryId : categoryIds) {
+                Roaring64Bitmap bitmap = bitmaps.getOrDefault(categoryId, new Roaring64Bitmap());
+                if (result == null) {
+                    result = bitmap.clone();
+                }
+                else if (matchAll) {
+                    result.and(bitmap);
+                }
+                else {
+                    result.or(bitmap);
+                }
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+
+        return result != null ? result : new Roaring64Bitmap();
+    }
+
+    public static List<Long> toIds(Roaring64Bitmap bitmap) {
+        List<Long> ids = new ArrayList<>((int) bitmap.getLongCardinality());
+        bitmap.forEach(ids::add);
+        return ids;
+    }
+}
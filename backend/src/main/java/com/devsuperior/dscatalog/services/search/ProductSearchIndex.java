@@ -0,0 +1,341 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.projections.ProductCategoryProjection;
+import com.devsuperior.dscatalog.projections.ProductProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductsChangedEvent;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória (n-gramas do nome -> ids de produto) usado para filtrar
+ * a busca de produtos por nome e categorias sem consultar o banco. Cada nome entra com os gramas de
+ * 1 a 3 caracteres, e as categorias têm o próprio bitmap, então filtro e total saem da interseção dos
+ * bitmaps. Conjuntos pequenos de candidatos são ordenados direto; os grandes percorrem a ordem por nome
+ * até preencher a página. Como o INNER JOIN da busca no banco, produtos sem categoria não entram.
+ * Alterações que chegam durante a carga inicial ficam na fila e são aplicadas em seguida. Fica desligado
+ * por padrão (catalog.search.in-memory.enabled).
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::getName).thenComparing(Entry::getId);
+
+    // Candidatos até 1/8 do índice são ordenados; acima disso sai mais barato percorrer a ordem por nome
+    private static final int SELECTIVE_RATIO = 8;
+
+    @Value("${catalog.search.in-memory.enabled}")
+    private boolean enabled;
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final NavigableSet<Entry> sorted = new TreeSet<>(ORDER);
+    private final Map<String, Roaring64Bitmap> postings = new HashMap<>();
+    private final Map<Long, Roaring64Bitmap> categories = new HashMap<>();
+    private final List<ProductChangedEvent> pending = new ArrayList<>();
+    private boolean loading;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+
+        // A partir daqui as alterações confirmadas vão para a fila até a carga terminar
+        lock.writeLock().lock();
+        try {
+            loading = true;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Entry> loaded = new HashMap<>();
+        for (ProductCategoryProjection row : repository.searchProductNamesWithCategories()) {
+            Entry entry = loaded.computeIfAbsent(row.getId(), id -> new Entry(id, row.getName(), new HashSet<>()));
+            if (row.getCategoryId() != null) {
+                entry.categoryIds.add(row.getCategoryId());
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            sorted.clear();
+            postings.clear();
+            categories.clear();
+            loaded.values().forEach(this::add);
+
+            // Reaplicar uma alteração que a carga já viu não muda nada: apply remove e adiciona de novo
+            pending.forEach(this::apply);
+            pending.clear();
+            loading = false;
+            ready = true;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        onChanges(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        onChanges(event.getChanges());
+    }
+
+    private void onChanges(List<ProductChangedEvent> changes) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                changes.forEach(this::apply);
+            }
+            else if (loading) {
+                pending.addAll(changes);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(ProductChangedEvent event) {
+        remove(event.getId());
+        if (!event.isDeleted()) {
+            add(new Entry(event.getId(), event.getName(), new HashSet<>(event.getCategoryIds())));
+        }
+    }
+
+    public Page<ProductProjection> search(List<Long> categoryIds, boolean matchAll, String name, Pageable pageable) {
+        String term = name.toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap candidates = candidates(term, categoryIds, matchAll);
+            if (candidates == null) {
+                // Sem termo nem categorias: todos os produtos do índice, na ordem por nome
+                return walk(null, term, true, entries.size(), pageable);
+            }
+
+            // Até 3 caracteres o bitmap do grama é exato; termos maiores conferem o nome de cada candidato
+            boolean exact = term.length() <= GRAM;
+            long cardinality = candidates.getLongCardinality();
+            if (cardinality * SELECTIVE_RATIO <= entries.size()) {
+                return sortCandidates(candidates, term, exact, pageable);
+            }
+            long total = exact ? cardinality : count(candidates, term);
+            return walk(candidates, term, exact, total, pageable);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Interseção dos bitmaps do termo e das categorias; null quando não há filtro algum
+    private Roaring64Bitmap candidates(String term, List<Long> categoryIds, boolean matchAll) {
+        List<Roaring64Bitmap> lists = new ArrayList<>();
+        for (String gram : term.length() <= GRAM ? Set.of(term) : grams(term, GRAM)) {
+            if (gram.isEmpty()) {
+                continue;
+            }
+            Roaring64Bitmap posting = postings.get(gram);
+            if (posting == null) {
+                return new Roaring64Bitmap();
+            }
+            lists.add(posting);
+        }
+
+        if (!categoryIds.isEmpty()) {
+            Roaring64Bitmap union = new Roaring64Bitmap();
+            for (Long categoryId : categoryIds) {
+                Roaring64Bitmap bitmap = categories.get(categoryId);
+                if (matchAll) {
+                    if (bitmap == null) {
+                        return new Roaring64Bitmap();
+                    }
+                    lists.add(bitmap);
+                }
+                else if (bitmap != null) {
+                    union.or(bitmap);
+                }
+            }
+            if (!matchAll) {
+                lists.add(union);
+            }
+        }
+
+        if (lists.isEmpty()) {
+            return null;
+        }
+        lists.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+        Roaring64Bitmap result = lists.get(0).clone();
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.and(lists.get(i));
+        }
+        return result;
+    }
+
+    private Page<ProductProjection> sortCandidates(Roaring64Bitmap candidates, String term, boolean exact,
+                                                   Pageable pageable) {
+        List<Entry> matches = new ArrayList<>((int) candidates.getLongCardinality());
+        candidates.forEach(id -> {
+            Entry entry = entries.get(id);
+            if (exact || entry.key.contains(term)) {
+                matches.add(entry);
+            }
+        });
+        matches.sort(ORDER);
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(new ArrayList<>(matches.subList(from, to)), pageable, matches.size());
+    }
+
+    private long count(Roaring64Bitmap candidates, String term) {
+        long[] total = {0};
+        candidates.forEach(id -> {
+            if (entries.get(id).key.contains(term)) {
+                total[0]++;
+            }
+        });
+        return total[0];
+    }
+
+    // Percorre a ordem por nome só até preencher a página; o total já vem calculado
+    private Page<ProductProjection> walk(Roaring64Bitmap candidates, String term, boolean exact, long total,
+                                         Pageable pageable) {
+        List<ProductProjection> content = new ArrayList<>(pageable.getPageSize());
+        if (pageable.getOffset() < total) {
+            long skip = pageable.getOffset();
+            for (Entry entry : sorted) {
+                if ((candidates == null || candidates.contains(entry.getId()))
+                        && (exact || entry.key.contains(term))) {
+                    if (skip > 0) {
+                        skip--;
+                    }
+                    else if (content.add(entry) && content.size() == pageable.getPageSize()) {
+                        break;
+                    }
+                }
+            }
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private void add(Entry entry) {
+        if (entry.categoryIds.isEmpty()) {
+            return;
+        }
+        entries.put(entry.getId(), entry);
+        sorted.add(entry);
+        for (String gram : grams(entry.key)) {
+            postings.computeIfAbsent(gram, g -> new Roaring64Bitmap()).addLong(entry.getId());
+        }
+        for (Long categoryId : entry.categoryIds) {
+            categories.computeIfAbsent(categoryId, id -> new Roaring64Bitmap()).addLong(entry.getId());
+        }
+    }
+
+    private void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        sorted.remove(entry);
+        for (String gram : grams(entry.key)) {
+            removeFrom(postings, gram, id);
+        }
+        for (Long categoryId : entry.categoryIds) {
+            removeFrom(categories, categoryId, id);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, Roaring64Bitmap> bitmaps, K key, long id) {
+        Roaring64Bitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.removeLong(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    // Gramas de 1 a 3 caracteres, para que termos curtos também resolvam por bitmap
+    private static Set<String> grams(String text) {
+        Set<String> result = new HashSet<>();
+        for (int size = 1; size <= GRAM; size++) {
+            result.addAll(grams(text, size));
+        }
+        return result;
+    }
+
+    private static Set<String> grams(String text, int size) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + size <= text.length(); i++) {
+            result.add(text.substring(i, i + size));
+        }
+        return result;
+    }
+
+    private static class Entry implements ProductProjection {
+
+        private final Long id;
+        private final String name;
+        private final String key;
+        private final Set<Long> categoryIds;
+
+        Entry(Long id, String name, Set<Long> categoryIds) {
+            this.id = id;
+            this.name = name;
+            this.key = name.toLowerCase(Locale.ROOT);
+            this.categoryIds = categoryIds;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.devsuperior.dscatalog.util;
+
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da paginação por chave (keyset) de produtos.
+ * Codifica a posição (name, id) do último item entregue em Base64 URL-safe.
+ */
+public class ProductCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final String name;
+    private final Long id;
+
+    public ProductCursor(String name, Long id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int index = raw.indexOf(SEPARATOR);
+            return new ProductCursor(raw.substring(index + 1), Long.parseLong(raw.substring(0, index)));
+        }
+        catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+}
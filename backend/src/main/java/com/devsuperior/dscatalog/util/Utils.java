@@ -2,6 +2,11 @@ package com.devsuperior.dscatalog.util;
 
 import com.devsuperior.dscatalog.projections.IdProjection;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -23,4 +28,21 @@ public class Utils {
 
         return result;
     }
+
+    // Converte o valor de uma coluna TIMESTAMP lida por query nativa para Instant
+    public static Instant toInstant(Object value) {
+        if (value == null || value instanceof Instant) {
+            return (Instant) value;
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.atZone(ZoneId.systemDefault()).toInstant();
+        }
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        }
+        throw new IllegalArgumentException("Tipo de data não suportado: " + value.getClass());
+    }
 }
@@ -0,0 +1,54 @@
+-- Esquema inicial do catálogo; bancos que já existiam antes das migrações são marcados
+-- nesta versão (baseline) e seguem a partir da V2
+CREATE TABLE tb_user (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    CONSTRAINT uk_user_email UNIQUE (email)
+);
+
+CREATE TABLE tb_role (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    authority VARCHAR(255)
+);
+
+CREATE TABLE tb_user_role (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_user_role_user FOREIGN KEY (user_id) REFERENCES tb_user (id),
+    CONSTRAINT fk_user_role_role FOREIGN KEY (role_id) REFERENCES tb_role (id)
+);
+
+CREATE TABLE tb_category (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    created_at TIMESTAMP WITHOUT TIME ZONE,
+    updated_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE TABLE tb_product (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    description TEXT,
+    price DOUBLE PRECISION,
+    img_url VARCHAR(255),
+    date TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE TABLE tb_product_category (
+    product_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    PRIMARY KEY (product_id, category_id),
+    CONSTRAINT fk_product_category_product FOREIGN KEY (product_id) REFERENCES tb_product (id),
+    CONSTRAINT fk_product_category_category FOREIGN KEY (category_id) REFERENCES tb_category (id)
+);
+
+CREATE TABLE tb_password_recover (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    expiration TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,4 @@
+-- Versão e data de alteração usadas como validadores HTTP (ETag / Last-Modified).
+-- IF NOT EXISTS: bancos de desenvolvimento podem já ter as colunas do script anterior às migrações
+ALTER TABLE tb_product ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE tb_product ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITHOUT TIME ZONE;
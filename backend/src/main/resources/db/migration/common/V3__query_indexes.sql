@@ -0,0 +1,19 @@
+-- Um índice para cada caminho de acesso das consultas dos repositórios.
+-- A PK (product_id, category_id) atende a busca das categorias de um produto;
+-- este atende o filtro por categoria e devolve o product_id sem ler a tabela
+CREATE INDEX IF NOT EXISTS idx_product_category_category_product ON tb_product_category (category_id, product_id);
+
+-- A PK (user_id, role_id) atende o join a partir do usuário
+CREATE INDEX IF NOT EXISTS idx_user_role_role ON tb_user_role (role_id);
+
+-- RoleRepository.findByAuthority
+CREATE UNIQUE INDEX IF NOT EXISTS uk_role_authority ON tb_role (authority);
+
+-- PasswordRecoverRepository.searchValidTokens
+CREATE INDEX IF NOT EXISTS idx_password_recover_token ON tb_password_recover (token);
+
+-- Uma chave de ordenação por índice (coluna, id): a página sai de uma varredura ordenada
+-- com LIMIT, e as faixas de preço/data usam o mesmo índice
+CREATE INDEX IF NOT EXISTS idx_product_name_id ON tb_product (name, id);
+CREATE INDEX IF NOT EXISTS idx_product_price_id ON tb_product (price, id);
+CREATE INDEX IF NOT EXISTS idx_product_date_id ON tb_product (date, id);
@@ -0,0 +1,16 @@
+-- Emails gravados na mesma transação que os originou e enviados depois pelo EmailOutboxDispatcher
+CREATE TABLE tb_email_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER DEFAULT 0 NOT NULL,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    sent_at TIMESTAMP WITH TIME ZONE,
+    last_error VARCHAR(1000)
+);
+
+-- Fila do despachante: pendentes em ordem de próxima tentativa
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next_attempt ON tb_email_outbox (status, next_attempt_at);
@@ -0,0 +1,10 @@
+-- O token passa a ser guardado só como hash SHA-256 (hex), com índice único para a busca pontual.
+-- Tokens em aberto valem poucos minutos e não têm como ser convertidos: são descartados
+DELETE FROM tb_password_recover;
+DROP INDEX IF EXISTS idx_password_recover_token;
+ALTER TABLE tb_password_recover DROP COLUMN token;
+ALTER TABLE tb_password_recover ADD COLUMN token_hash VARCHAR(64) NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_password_recover_token_hash ON tb_password_recover (token_hash);
+
+-- Limpeza periódica dos tokens vencidos
+CREATE INDEX IF NOT EXISTS idx_password_recover_expiration ON tb_password_recover (expiration);
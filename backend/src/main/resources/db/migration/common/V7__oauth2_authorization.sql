@@ -0,0 +1,42 @@
+-- Tabela do JdbcOAuth2AuthorizationService (catalog.oauth2.authorization-store=jdbc), com o esquema do
+-- Spring Authorization Server e BYTEA no lugar de BLOB, aceito tanto pelo PostgreSQL quanto pelo H2
+CREATE TABLE IF NOT EXISTS oauth2_authorization (
+    id VARCHAR(100) NOT NULL,
+    registered_client_id VARCHAR(100) NOT NULL,
+    principal_name VARCHAR(200) NOT NULL,
+    authorization_grant_type VARCHAR(100) NOT NULL,
+    authorized_scopes VARCHAR(1000) DEFAULT NULL,
+    attributes BYTEA DEFAULT NULL,
+    state VARCHAR(500) DEFAULT NULL,
+    authorization_code_value BYTEA DEFAULT NULL,
+    authorization_code_issued_at TIMESTAMP DEFAULT NULL,
+    authorization_code_expires_at TIMESTAMP DEFAULT NULL,
+    authorization_code_metadata BYTEA DEFAULT NULL,
+    access_token_value BYTEA DEFAULT NULL,
+    access_token_issued_at TIMESTAMP DEFAULT NULL,
+    access_token_expires_at TIMESTAMP DEFAULT NULL,
+    access_token_metadata BYTEA DEFAULT NULL,
+    access_token_type VARCHAR(100) DEFAULT NULL,
+    access_token_scopes VARCHAR(1000) DEFAULT NULL,
+    oidc_id_token_value BYTEA DEFAULT NULL,
+    oidc_id_token_issued_at TIMESTAMP DEFAULT NULL,
+    oidc_id_token_expires_at TIMESTAMP DEFAULT NULL,
+    oidc_id_token_metadata BYTEA DEFAULT NULL,
+    refresh_token_value BYTEA DEFAULT NULL,
+    refresh_token_issued_at TIMESTAMP DEFAULT NULL,
+    refresh_token_expires_at TIMESTAMP DEFAULT NULL,
+    refresh_token_metadata BYTEA DEFAULT NULL,
+    user_code_value BYTEA DEFAULT NULL,
+    user_code_issued_at TIMESTAMP DEFAULT NULL,
+    user_code_expires_at TIMESTAMP DEFAULT NULL,
+    user_code_metadata BYTEA DEFAULT NULL,
+    device_code_value BYTEA DEFAULT NULL,
+    device_code_issued_at TIMESTAMP DEFAULT NULL,
+    device_code_expires_at TIMESTAMP DEFAULT NULL,
+    device_code_metadata BYTEA DEFAULT NULL,
+    CONSTRAINT pk_oauth2_authorization PRIMARY KEY (id)
+);
+
+-- Limpeza periódica das autorizações vencidas
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_access_token_expires_at
+    ON oauth2_authorization (access_token_expires_at);
@@ -0,0 +1,4 @@
+-- Emails com link de validade curta (recuperação de senha) deixam de ser enviados depois de expires_at.
+-- O corpo é apagado quando o email termina; os já finalizados têm o corpo apagado aqui
+ALTER TABLE tb_email_outbox ADD COLUMN expires_at TIMESTAMP WITH TIME ZONE;
+UPDATE tb_email_outbox SET body = '' WHERE status IN ('SENT', 'DEAD');
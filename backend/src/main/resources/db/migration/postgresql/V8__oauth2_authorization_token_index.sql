@@ -0,0 +1,4 @@
+-- Introspecção e revogação buscam a autorização pelo valor do access token. Um JWT pode passar do
+-- limite de tamanho de uma entrada de B-tree, por isso o índice é hash (só igualdade, que é o que a busca usa)
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_access_token_value
+    ON oauth2_authorization USING hash (access_token_value);
@@ -0,0 +1,146 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.dto.CategoryMatch;
+import com.devsuperior.dscatalog.dto.LinkMode;
+import com.devsuperior.dscatalog.dto.TotalMode;
+import com.devsuperior.dscatalog.services.ProductService;
+import com.devsuperior.dscatalog.services.search.CategoryBitmapIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compara, para categorias de tamanhos diferentes, a página de GET /products filtrada por categoria em três
+ * caminhos: JOIN no banco (bitmap desligado), ids do bitmap como filtro IN e leitura de tb_product em ordem
+ * de nome mantendo os ids do bitmap. Serve para escolher catalog.search.category-bitmap.max-in-ids, o ponto
+ * em que a lista IN passa a custar mais que a leitura por nome. Insere produtos e categorias na base
+ * configurada, por isso deve rodar apenas em uma base descartável:
+ *
+ * ./mvnw test -Dtest=CategoryBitmapBenchmark -Dbenchmark=true
+ *
+ * Parâmetros: benchmark.products (100000), benchmark.divisors (100,20,10,5,2): cada divisor d cria uma
+ * categoria com os produtos cujo índice é múltiplo de d; benchmark.max-in (20000): acima disso o caminho
+ * IN não é medido (in=NaN), porque cada requisição passa de segundos.
+ *
+ * Resultado no H2 em memória, 1 núcleo, 100 mil produtos, total=none, mediana das páginas 0 e 20:
+ * - IN cresce mais que linearmente com a lista: 1 mil ids 6-24ms, 5 mil 116-158ms, 10 mil 460-489ms,
+ *   20 mil 1,8s. A leitura por nome fica em 2-19ms a partir de 5 mil ids, mas com 1 mil ids (1% do
+ *   catálogo) a página 20 custa 70-75ms contra 14-19ms do IN. Daí o padrão de max-in-ids em 2000.
+ * - Com todas as categorias (match=all) de duas categorias densas, 10 mil ids: JOIN 85-87ms,
+ *   leitura por nome 2-9ms. Uma categoria só, ou a união: o JOIN do H2 já fica em 1-24ms, perto da leitura.
+ */
+@SpringBootTest(properties = {"catalog.products.page-cache.enabled=false", "spring.jpa.show-sql=false"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class CategoryBitmapBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 100_000);
+    private static final String DIVISORS = System.getProperty("benchmark.divisors", "100,20,10,5,2");
+    private static final int[] PAGES = {0, 20};
+    private static final long MAX_IN = Long.getLong("benchmark.max-in", 20_000);
+    private static final int WARMUP = 5;
+    private static final int RUNS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private CategoryBitmapIndex categoryBitmapIndex;
+
+    @Test
+    public void joinVersusBitmapInVersusNameWalk() {
+        int[] divisors = Arrays.stream(DIVISORS.split(",")).mapToInt(Integer::parseInt).toArray();
+        List<Long> categoryIds = seed(divisors);
+
+        // Cada categoria sozinha e, com os divisores padrão, uniões e interseções entre elas
+        List<String[]> cases = new ArrayList<>();
+        for (Long categoryId : categoryIds) {
+            cases.add(new String[]{String.valueOf(categoryId), "any"});
+        }
+        if (categoryIds.size() == 5) {
+            cases.add(new String[]{categoryIds.get(1) + "," + categoryIds.get(0), "any"});
+            cases.add(new String[]{categoryIds.get(3) + "," + categoryIds.get(4), "all"});
+            cases.add(new String[]{categoryIds.get(1) + "," + categoryIds.get(0), "all"});
+        }
+
+        Object target = AopTestUtils.getTargetObject(service);
+        ReflectionTestUtils.setField(categoryBitmapIndex, "enabled", true);
+        categoryBitmapIndex.build();
+
+        for (String[] filter : cases) {
+            CategoryMatch match = CategoryMatch.of(filter[1]);
+            long size = categoryBitmapIndex.resolve(Arrays.stream(filter[0].split(",")).map(Long::valueOf).toList(),
+                    match == CategoryMatch.ALL).getLongCardinality();
+            for (int page : PAGES) {
+                ReflectionTestUtils.setField(categoryBitmapIndex, "ready", false);
+                double join = median(filter[0], match, page);
+
+                ReflectionTestUtils.setField(categoryBitmapIndex, "ready", true);
+                ReflectionTestUtils.setField(target, "maxBitmapInIds", Integer.MAX_VALUE);
+                double in = size <= MAX_IN ? median(filter[0], match, page) : Double.NaN;
+
+                ReflectionTestUtils.setField(target, "maxBitmapInIds", 0);
+                double walk = median(filter[0], match, page);
+
+                System.out.printf("products=%d categories=%s match=%s ids=%d page=%d join=%.2fms in=%.2fms walk=%.2fms%n",
+                        PRODUCTS, filter[0], filter[1], size, page, join, in, walk);
+            }
+        }
+    }
+
+    private double median(String categoryId, CategoryMatch match, int page) {
+        PageRequest pageRequest = PageRequest.of(page, 12);
+        for (int i = 0; i < WARMUP; i++) {
+            service.findAllPaged(categoryId, match, "", TotalMode.NONE, LinkMode.NONE, pageRequest);
+        }
+        long[] samples = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            service.findAllPaged(categoryId, match, "", TotalMode.NONE, LinkMode.NONE, pageRequest);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2] / 1_000_000.0;
+    }
+
+    // Uma categoria por divisor; o produto de índice n entra em todas as categorias cujo divisor divide n
+    private List<Long> seed(int[] divisors) {
+        List<Long> categoryIds = new ArrayList<>();
+        for (int divisor : divisors) {
+            jdbcTemplate.update("INSERT INTO tb_category (name, created_at) VALUES (?, ?)",
+                    "Benchmark 1/" + divisor, Timestamp.from(Instant.now()));
+            categoryIds.add(jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_category", Long.class));
+        }
+
+        Timestamp date = Timestamp.from(Instant.parse("2020-07-13T20:50:07Z"));
+        Long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tb_product", Long.class) + 1;
+        for (int start = 0; start < PRODUCTS; start += 10_000) {
+            List<Object[]> rows = new ArrayList<>();
+            for (int n = start; n < Math.min(PRODUCTS, start + 10_000); n++) {
+                rows.add(new Object[]{"Produto " + Integer.toHexString(n * 7919), 100.0 + n % 1000, date, "Benchmark", ""});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO tb_product (name, price, date, description, img_url) VALUES (?, ?, ?, ?, ?)", rows);
+        }
+        for (int i = 0; i < divisors.length; i++) {
+            jdbcTemplate.update("""
+                    INSERT INTO tb_product_category (product_id, category_id)
+                    SELECT id, ? FROM tb_product WHERE id >= ? AND MOD(id - ?, ?) = 0
+                    """, categoryIds.get(i), firstId, firstId, divisors[i]);
+        }
+        jdbcTemplate.execute("ANALYZE");
+        return categoryIds;
+    }
+}
@@ -0,0 +1,70 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.tests.TokenUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Mede tokens emitidos por segundo no grant password com logins simultâneos. Cada login verifica o segredo
+ * do cliente e a senha do usuário com BCrypt no pool de hash, então a vazão acompanha
+ * catalog.security.hashing.pool-size e o número de núcleos.
+ *
+ * ./mvnw test -Dtest=LoginThroughputBenchmark -Dbenchmark=true
+ *
+ * Parâmetros: benchmark.threads (16), benchmark.logins-per-thread (25).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class LoginThroughputBenchmark {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+    private static final int LOGINS_PER_THREAD = Integer.getInteger("benchmark.logins-per-thread", 25);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Test
+    public void concurrentLogins() throws Exception {
+        tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        long elapsed;
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < LOGINS_PER_THREAD; i++) {
+                        tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+            elapsed = System.nanoTime() - begin;
+        }
+
+        int logins = THREADS * LOGINS_PER_THREAD;
+        System.out.printf("logins=%d threads=%d cores=%d tokens/s=%.1f%n", logins, THREADS,
+                Runtime.getRuntime().availableProcessors(), logins / (elapsed / 1e9));
+    }
+}
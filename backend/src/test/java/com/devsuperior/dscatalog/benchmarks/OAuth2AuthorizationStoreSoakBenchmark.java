@@ -0,0 +1,126 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.config.BoundedOAuth2AuthorizationService;
+import com.devsuperior.dscatalog.config.SelfContainedTokenAuthorizationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Salva 1M de autorizações iguais às que o CustomPasswordAuthenticationProvider gera a cada login
+ * (JWT de 24h com as claims nos metadados) e mede o heap depois de um GC a cada 100k. Depois que o
+ * armazenamento enche, o heap deve ficar estável; com o InMemoryOAuth2AuthorizationService ele crescia
+ * alguns KB por login até o processo cair. A assinatura do JWT e o BCrypt ficam de fora: não guardam
+ * nada e só tornariam a execução horas mais longa.
+ *
+ * ./mvnw test -Dtest=OAuth2AuthorizationStoreSoakBenchmark -Dbenchmark=true
+ *
+ * Parâmetros: benchmark.logins (1000000), benchmark.max-size (10000), benchmark.heap-tolerance-mb (32).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class OAuth2AuthorizationStoreSoakBenchmark {
+
+    private static final int LOGINS = Integer.getInteger("benchmark.logins", 1_000_000);
+    private static final int MAX_SIZE = Integer.getInteger("benchmark.max-size", 10_000);
+    private static final long HEAP_TOLERANCE = Long.getLong("benchmark.heap-tolerance-mb", 32) * 1024 * 1024;
+    private static final int SAMPLE_EVERY = 100_000;
+
+    private static final RegisteredClient CLIENT = RegisteredClient.withId("myclientid")
+            .clientId("myclientid")
+            .authorizationGrantType(new AuthorizationGrantType("password"))
+            .build();
+
+    @Test
+    public void boundedStoreShouldKeepHeapFlat() {
+        BoundedOAuth2AuthorizationService service = new BoundedOAuth2AuthorizationService(MAX_SIZE,
+                Duration.ofDays(1), new SimpleMeterRegistry());
+
+        List<Long> heap = soak(service);
+
+        Assertions.assertTrue(service.size() <= MAX_SIZE);
+        assertFlat("memory", heap);
+    }
+
+    @Test
+    public void selfContainedStoreShouldKeepHeapFlat() {
+        BoundedOAuth2AuthorizationService delegate = new BoundedOAuth2AuthorizationService(MAX_SIZE,
+                Duration.ofDays(1), new SimpleMeterRegistry());
+
+        List<Long> heap = soak(new SelfContainedTokenAuthorizationService(delegate));
+
+        Assertions.assertEquals(0, delegate.size());
+        assertFlat("none", heap);
+    }
+
+    // Amostras só depois que o armazenamento encheu: a partir daí cada login novo substitui um antigo
+    private List<Long> soak(OAuth2AuthorizationService service) {
+        String padding = "x".repeat(600);
+        List<Long> samples = new ArrayList<>();
+        for (int i = 1; i <= LOGINS; i++) {
+            service.save(authorization(i, padding));
+            if (i % SAMPLE_EVERY == 0 && i >= 2 * MAX_SIZE) {
+                samples.add(usedHeapAfterGc());
+            }
+        }
+        return samples;
+    }
+
+    private static void assertFlat(String mode, List<Long> heap) {
+        long first = heap.get(0);
+        long max = heap.stream().mapToLong(Long::longValue).max().orElse(first);
+        System.out.printf("mode=%s logins=%d maxSize=%d heapMb=%s%n", mode, LOGINS, MAX_SIZE,
+                heap.stream().map(bytes -> bytes / (1024 * 1024)).toList());
+        Assertions.assertTrue(max - first < HEAP_TOLERANCE,
+                "heap cresceu " + (max - first) / (1024 * 1024) + "MB durante o teste (" + mode + ")");
+    }
+
+    private static OAuth2Authorization authorization(int login, String padding) {
+        Instant issuedAt = Instant.now();
+        Instant expiresAt = issuedAt.plus(Duration.ofDays(1));
+        String tokenValue = "eyJhbGciOiJSUzI1NiJ9." + UUID.randomUUID() + padding + "." + login;
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, tokenValue,
+                issuedAt, expiresAt, Set.of("read", "write"));
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "myclientid");
+        claims.put("aud", List.of("myclientid"));
+        claims.put("iat", issuedAt);
+        claims.put("exp", expiresAt);
+        claims.put("scope", Set.of("read", "write"));
+        claims.put("username", "user" + login + "@gmail.com");
+        claims.put("authorities", new ArrayList<>(List.of("ROLE_OPERATOR")));
+
+        return OAuth2Authorization.withRegisteredClient(CLIENT)
+                .id(UUID.randomUUID().toString())
+                .principalName("myclientid")
+                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .authorizedScopes(Set.of("read", "write"))
+                .token(accessToken, metadata -> metadata.put(OAuth2Authorization.Token.CLAIMS_METADATA_NAME, claims))
+                .build();
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
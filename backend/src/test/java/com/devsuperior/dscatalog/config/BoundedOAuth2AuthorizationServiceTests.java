@@ -0,0 +1,107 @@
+package com.devsuperior.dscatalog.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BoundedOAuth2AuthorizationServiceTests {
+
+    private AtomicLong nanos;
+    private BoundedOAuth2AuthorizationService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        nanos = new AtomicLong();
+        service = new BoundedOAuth2AuthorizationService(10, Duration.ofMinutes(5), nanos::get);
+    }
+
+    @Test
+    public void findByTokenShouldReturnAuthorizationWhenAccessTokenWasSaved() {
+        OAuth2Authorization authorization = authorization("a1", "token-1", Duration.ofMinutes(1));
+        service.save(authorization);
+
+        Assertions.assertSame(authorization, service.findById("a1"));
+        Assertions.assertSame(authorization, service.findByToken("token-1", OAuth2TokenType.ACCESS_TOKEN));
+        Assertions.assertSame(authorization, service.findByToken("token-1", null));
+        Assertions.assertNull(service.findByToken("token-1", OAuth2TokenType.REFRESH_TOKEN));
+        Assertions.assertNull(service.findByToken("other", null));
+    }
+
+    @Test
+    public void findByTokenShouldReturnNullWhenAccessTokenExpired() {
+        service.save(authorization("a1", "token-1", Duration.ofMinutes(1)));
+
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        Assertions.assertNull(service.findById("a1"));
+        Assertions.assertNull(service.findByToken("token-1", null));
+    }
+
+    @Test
+    public void saveShouldEvictOldestAuthorizationsWhenMaxSizeIsExceeded() {
+        for (int i = 0; i < 100; i++) {
+            service.save(authorization("a" + i, "token-" + i, Duration.ofHours(24)));
+        }
+
+        Assertions.assertTrue(service.size() <= 10);
+    }
+
+    @Test
+    public void saveShouldReplaceTokenIndexWhenAuthorizationIsUpdated() {
+        service.save(authorization("a1", "token-1", Duration.ofMinutes(1)));
+        service.save(authorization("a1", "token-2", Duration.ofMinutes(1)));
+
+        Assertions.assertNull(service.findByToken("token-1", null));
+        Assertions.assertEquals("a1", service.findByToken("token-2", null).getId());
+    }
+
+    @Test
+    public void removeShouldDeleteAuthorizationAndTokens() {
+        OAuth2Authorization authorization = authorization("a1", "token-1", Duration.ofMinutes(1));
+        service.save(authorization);
+
+        service.remove(authorization);
+
+        Assertions.assertNull(service.findById("a1"));
+        Assertions.assertNull(service.findByToken("token-1", null));
+    }
+
+    @Test
+    public void selfContainedServiceShouldNotStoreAuthorizationWithOnlyJwtAccessToken() {
+        SelfContainedTokenAuthorizationService selfContained = new SelfContainedTokenAuthorizationService(service);
+
+        selfContained.save(authorization("a1", "token-1", Duration.ofMinutes(1)));
+
+        Assertions.assertEquals(0, service.size());
+        Assertions.assertNull(selfContained.findByToken("token-1", null));
+    }
+
+    static OAuth2Authorization authorization(String id, String tokenValue, Duration timeToLive) {
+        RegisteredClient client = RegisteredClient.withId("myclientid")
+                .clientId("myclientid")
+                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .build();
+        Instant issuedAt = Instant.now();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, tokenValue,
+                issuedAt, issuedAt.plus(timeToLive), Set.of("read"));
+        Map<String, Object> claims = Map.of("username", "maria@gmail.com", "exp", accessToken.getExpiresAt());
+        return OAuth2Authorization.withRegisteredClient(client)
+                .id(id)
+                .principalName("myclientid")
+                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .authorizedScopes(Set.of("read"))
+                .token(accessToken, metadata -> metadata.put(OAuth2Authorization.Token.CLAIMS_METADATA_NAME, claims))
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.devsuperior.dscatalog.config;
+
+import com.devsuperior.dscatalog.services.exceptions.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BoundedPasswordEncoderTests {
+
+    private CountDownLatch release;
+    private CountDownLatch started;
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        release = new CountDownLatch(1);
+        started = new CountDownLatch(1);
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, Duration.ofSeconds(5), 2, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.destroy();
+    }
+
+    @Test
+    public void matchesShouldReturnDelegateResultAndRecordMetrics() {
+        release.countDown();
+
+        Assertions.assertTrue(encoder.matches("123456", "123456"));
+        Assertions.assertFalse(encoder.matches("123456", "outra"));
+        Assertions.assertEquals(2, meterRegistry.get("catalog.security.hashing.hash-time").timer().count());
+        Assertions.assertEquals(2, meterRegistry.get("catalog.security.hashing.queue-wait").timer().count());
+    }
+
+    @Test
+    public void matchesShouldThrowBusyExceptionWhenPoolAndQueueAreFull() throws Exception {
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "a"));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "b"));
+        while (meterRegistry.get("catalog.security.hashing.queue-size").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+
+        PasswordHashingBusyException e = Assertions.assertThrows(PasswordHashingBusyException.class,
+                () -> encoder.matches("c", "c"));
+
+        Assertions.assertEquals(2, e.getRetryAfterSeconds());
+        Assertions.assertEquals(1.0, meterRegistry.get("catalog.security.hashing.rejected").counter().count());
+        release.countDown();
+        Assertions.assertTrue(running.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void busyFilterShouldRespondServiceUnavailableWithRetryAfter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new PasswordHashingBusyFilter().doFilter(new MockHttpServletRequest("POST", "/oauth2/token"), response,
+                (request, res) -> {
+                    throw new PasswordHashingBusyException("Servidor ocupado", 2);
+                });
+
+        Assertions.assertEquals(503, response.getStatus());
+        Assertions.assertEquals("2", response.getHeader("Retry-After"));
+        Assertions.assertTrue(response.getContentAsString().contains("temporarily_unavailable"));
+    }
+
+    // Compara em texto puro e segura a thread do pool até o teste liberar
+    private class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.devsuperior.dscatalog.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ocupa a única thread e a única vaga da fila do pool de hash; o login seguinte é recusado antes do BCrypt
+ * e o /oauth2/token tem que responder 503 com Retry-After e corpo de erro do OAuth2.
+ */
+@SpringBootTest(properties = {
+        "catalog.security.hashing.pool-size=1",
+        "catalog.security.hashing.queue-capacity=1",
+        "catalog.security.hashing.retry-after-seconds=3"})
+@AutoConfigureMockMvc
+public class PasswordHashingBusyIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @Value("${security.client-secret}")
+    private String clientSecret;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    public void tokenShouldReturnServiceUnavailableWithRetryAfterWhenHashingPoolIsFull() throws Exception {
+        Object encoder = AopTestUtils.getTargetObject(passwordEncoder);
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(encoder, "executor");
+        CountDownLatch running = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            awaitRelease();
+        });
+        running.await();
+        executor.execute(this::awaitRelease);
+
+        mockMvc.perform(post("/oauth2/token")
+                        .param("grant_type", "password")
+                        .param("username", "maria@gmail.com")
+                        .param("password", "123456")
+                        .with(httpBasic(clientId, clientSecret))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value("temporarily_unavailable"))
+                .andExpect(jsonPath("$.error_description").isNotEmpty());
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.devsuperior.dscatalog.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReadReplicaRoutingDataSourceTests {
+
+    private DataSource primary;
+    private DataSource replica;
+    private DataSource otherReplica;
+    private DataSource unavailable;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = node("primary");
+        replica = node("replica1");
+        otherReplica = node("replica2");
+        unavailable = new DriverManagerDataSource("jdbc:h2:mem:routing-missing;IFEXISTS=TRUE", "sa", "");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void readOnlyTransactionsShouldAlternateBetweenReplicas() {
+        Routing routing = new Routing(List.of(replica, otherReplica), Duration.ZERO);
+
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(routing.read());
+        }
+
+        Assertions.assertEquals(List.of("replica1", "replica2", "replica1", "replica2"), nodes);
+    }
+
+    @Test
+    public void readWriteTransactionShouldUsePrimary() {
+        Routing routing = new Routing(List.of(replica, otherReplica), Duration.ZERO);
+
+        Assertions.assertEquals("primary", routing.write());
+    }
+
+    @Test
+    public void readOnlyTransactionShouldSkipUnavailableReplica() {
+        Routing routing = new Routing(List.of(unavailable, replica), Duration.ZERO);
+
+        Assertions.assertEquals("replica1", routing.read());
+        Assertions.assertEquals("replica1", routing.read());
+    }
+
+    @Test
+    public void readOnlyTransactionShouldFallBackToPrimaryWhenNoReplicaIsAvailable() {
+        Routing routing = new Routing(List.of(unavailable), Duration.ZERO);
+
+        Assertions.assertEquals("primary", routing.read());
+    }
+
+    @Test
+    public void readOnlyTransactionShouldUsePrimaryRightAfterSameUsersWrite() {
+        Routing routing = new Routing(List.of(replica), Duration.ofMinutes(1));
+
+        authenticate("maria@gmail.com");
+        Assertions.assertEquals("replica1", routing.read());
+        routing.write();
+        Assertions.assertEquals("primary", routing.read());
+
+        authenticate("alex@gmail.com");
+        Assertions.assertEquals("replica1", routing.read());
+    }
+
+    @Test
+    public void readYourWritesShouldIgnoreRolledBackWrites() {
+        Routing routing = new Routing(List.of(replica), Duration.ofMinutes(1));
+
+        authenticate("maria@gmail.com");
+        routing.transactions.execute(status -> {
+            routing.jdbcTemplate.queryForObject("SELECT name FROM tb_node", String.class);
+            status.setRollbackOnly();
+            return null;
+        });
+
+        Assertions.assertEquals("replica1", routing.read());
+    }
+
+    @Test
+    public void getConnectionWithCredentialsShouldUseSameRouting() throws Exception {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, List.of(replica),
+                Duration.ofMinutes(1), Duration.ZERO, new SimpleMeterRegistry());
+
+        try (Connection connection = routing.getConnection("sa", "")) {
+            Assertions.assertEquals("primary", new JdbcTemplate(new SingleConnectionDataSource(connection, true))
+                    .queryForObject("SELECT name FROM tb_node", String.class));
+        }
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    // Cada banco H2 responde o próprio nome, o que mostra para onde a transação foi roteada
+    private static DataSource node(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS tb_node");
+        jdbcTemplate.execute("CREATE TABLE tb_node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO tb_node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private class Routing {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactions;
+        private final TransactionTemplate readOnlyTransactions;
+
+        Routing(List<DataSource> replicas, Duration readYourWrites) {
+            ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, replicas,
+                    Duration.ofMinutes(1), readYourWrites, new SimpleMeterRegistry());
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            transactions = new TransactionTemplate(transactionManager);
+            readOnlyTransactions = new TransactionTemplate(transactionManager);
+            readOnlyTransactions.setReadOnly(true);
+        }
+
+        String read() {
+            return readOnlyTransactions.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM tb_node", String.class));
+        }
+
+        String write() {
+            return transactions.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM tb_node", String.class));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.devsuperior.dscatalog.config.customgrant;
+
+import com.devsuperior.dscatalog.tests.TokenUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Logins simultâneos de usuários com papéis diferentes: cada JWT tem que sair com o username e os
+ * authorities do próprio pedido. Antes o provider guardava username, senha e escopos em campos do
+ * singleton, e um login podia emitir o token com os dados de outro. A carga é pequena porque cada login
+ * custa dois BCrypt; a vazão fica no LoginThroughputBenchmark.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CustomPasswordAuthenticationProviderIT {
+
+    private static final int THREADS = 8;
+    private static final int LOGINS_PER_THREAD = 6;
+
+    private static final Map<String, Set<String>> USERS = Map.of(
+            "alex@gmail.com", Set.of("ROLE_OPERATOR"),
+            "maria@gmail.com", Set.of("ROLE_OPERATOR", "ROLE_ADMIN"),
+            "adieldantasn@gmail.com", Set.of("ROLE_OPERATOR"));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    public void concurrentLoginsShouldIssueTokensWithTheirOwnClaims() throws Exception {
+        List<String> usernames = List.copyOf(USERS.keySet());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<String> errors = new ArrayList<>();
+                    for (int i = 0; i < LOGINS_PER_THREAD; i++) {
+                        String username = usernames.get((offset + i) % usernames.size());
+                        Jwt jwt = jwtDecoder.decode(tokenUtil.obtainAccessToken(mockMvc, username, "123456"));
+                        String claimed = jwt.getClaimAsString("username");
+                        Set<String> authorities = Set.copyOf(jwt.getClaimAsStringList("authorities"));
+                        if (!username.equals(claimed) || !USERS.get(username).equals(authorities)) {
+                            errors.add(username + " recebeu username=" + claimed + " authorities=" + authorities);
+                        }
+                    }
+                    return errors;
+                }));
+            }
+            start.countDown();
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (Future<List<String>> result : results) {
+            errors.addAll(result.get());
+        }
+        Assertions.assertTrue(errors.isEmpty(), errors.size() + " tokens com claims de outro login: " + errors);
+    }
+}
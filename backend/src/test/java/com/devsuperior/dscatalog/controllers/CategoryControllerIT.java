@@ -0,0 +1,120 @@
+package com.devsuperior.dscatalog.controllers;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.services.CategoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CategoryControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void findAllShouldReturnNotModifiedWhenETagMatches() throws Exception {
+        String etag = mockMvc.perform(get("/categories")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$[0].name").exists())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/categories")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void findAllShouldReturnGzipBodyWhenAccepted() throws Exception {
+        var plain = mockMvc.perform(get("/categories")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse();
+
+        var gzip = mockMvc.perform(get("/categories")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getContentAsByteArray()))) {
+            assertEquals(plain.getContentAsString(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertNotEquals(plain.getHeader(HttpHeaders.ETAG), gzip.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void updateShouldRebuildSnapshotAndChangeETag() throws Exception {
+        String etag = categoriesEtag();
+
+        categoryService.update(2L, new CategoryDTO("Livros e Revistas"));
+        try {
+            String updated = mockMvc.perform(get("/categories")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[?(@.id == 2)].name").value("Livros e Revistas"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            assertNotEquals(etag, updated);
+        }
+        finally {
+            categoryService.update(2L, new CategoryDTO("Livros"));
+        }
+    }
+
+    // Simula a escrita de outra instância: nenhum evento chega e a mudança aparece pela versão da tabela
+    @Test
+    public void findAllShouldRebuildSnapshotWhenTableChangedWithoutEvent() throws Exception {
+        Object target = AopTestUtils.getTargetObject(categoryService);
+        ReflectionTestUtils.setField(target, "checkSeconds", 0L);
+        String etag = categoriesEtag();
+        try {
+            jdbcTemplate.update("UPDATE tb_category SET name = ?, updated_at = ? WHERE id = 3",
+                    "Informática", Timestamp.from(Instant.now()));
+
+            assertNotEquals(etag, categoriesEtag());
+        }
+        finally {
+            jdbcTemplate.update("UPDATE tb_category SET name = ?, updated_at = ? WHERE id = 3",
+                    "Computadores", Timestamp.from(Instant.now()));
+            categoriesEtag();
+            ReflectionTestUtils.setField(target, "checkSeconds", 5L);
+        }
+    }
+
+    private String categoriesEtag() throws Exception {
+        return mockMvc.perform(get("/categories")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
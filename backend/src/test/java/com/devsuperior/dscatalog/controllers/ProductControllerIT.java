@@ -9,7 +9,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -63,6 +65,17 @@ public class ProductControllerIT {
                 .andExpect(jsonPath("$.content[2].name").value("PC Gamer Alfa"));
     }
 
+    @Test
+    public void findAllShouldReturnCategoryFacetsNextToPageWhenRequested() throws Exception {
+        mockMvc.perform(get("/products?page=0&size=12&name=smart&facets=category")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Smart TV"))
+                .andExpect(jsonPath("$.facets[0].name").value("Computadores"))
+                .andExpect(jsonPath("$.facets[0].count").value(1));
+    }
+
     @Test
     public void findByIdShouldReturnProductDTOWhenIdExists() throws Exception {
         mockMvc.perform(get("/products/{id}", existingId)
@@ -70,6 +83,37 @@ public class ProductControllerIT {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void findByIdShouldReturnNotModifiedWhenValidatorsMatch() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/products/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        mockMvc.perform(get("/products/{id}", existingId)
+                        .header(HttpHeaders.IF_NONE_MATCH, response.getHeader(HttpHeaders.ETAG))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/products/{id}", existingId)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, response.getHeader(HttpHeaders.LAST_MODIFIED))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void findAllShouldReturnNotModifiedWhenETagMatches() throws Exception {
+        String etag = mockMvc.perform(get("/products?page=0&size=12&categoryId=1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/products?page=0&size=12&categoryId=1")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     public void findByIdShouldReturnNotFoundWhenIdDoesNotExists() throws Exception {
         mockMvc.perform(get("/products/{id}", nonExistingId)
@@ -1,7 +1,12 @@
 package com.devsuperior.dscatalog.controllers;
 
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.ProductBulkUpdateService;
+import com.devsuperior.dscatalog.services.ProductExportService;
+import com.devsuperior.dscatalog.services.ProductImportService;
+import com.devsuperior.dscatalog.services.ProductListing;
 import com.devsuperior.dscatalog.services.ProductService;
+import com.devsuperior.dscatalog.services.ResourceValidator;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 import com.devsuperior.dscatalog.tests.Factory;
@@ -12,11 +17,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.time.Instant;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -35,6 +42,15 @@ public class ProductControllerTests {
     @MockitoBean
     private ProductService service;
 
+    @MockitoBean
+    private ProductExportService exportService;
+
+    @MockitoBean
+    private ProductImportService importService;
+
+    @MockitoBean
+    private ProductBulkUpdateService bulkUpdateService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -53,7 +69,12 @@ public class ProductControllerTests {
         productDTO = Factory.createdProductDTO();
         page = new PageImpl<>(List.of(productDTO));
 
-        when(service.findAllPaged(null, null, any())).thenReturn(page);
+        ProductListing listing = new ProductListing(page, null, "l0");
+        when(service.findListing(any(), any(), any(), any(), any(), any(), anyBoolean(), any())).thenReturn(listing);
+
+        ResourceValidator validator = new ResourceValidator("p1-0", Instant.parse("2020-10-20T03:00:00Z"));
+        when(service.findValidatorById(existingId)).thenReturn(validator);
+        when(service.findValidatorById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
 
         when(service.findById(existingId)).thenReturn(productDTO);
         when(service.findById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
@@ -100,6 +121,18 @@ public class ProductControllerTests {
         result.andExpect(status().isNotFound());
     }
 
+    @Test
+    public void findByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/products/{id}", existingId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"p1-0\"")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isNotModified());
+        verify(service, never()).findById(existingId);
+    }
+
     @Test
     public void updateShouldReturnProductDTOWhenIdExists() throws Exception {
 
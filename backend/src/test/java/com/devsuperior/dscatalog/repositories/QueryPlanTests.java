@@ -0,0 +1,307 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.dto.ProductRangeFilter;
+import com.devsuperior.dscatalog.dto.ProductSort;
+import com.devsuperior.dscatalog.entities.EmailOutboxStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Chama os métodos dos repositórios sobre o esquema criado pelas migrações, captura cada SELECT, UPDATE e
+ * DELETE enviado ao JDBC junto com os parâmetros vinculados e roda EXPLAIN no H2 com esses mesmos valores.
+ * Falha se alguma tabela for lida por varredura completa. O ddl-auto fica desligado para que o Hibernate não
+ * recrie as tabelas sem os índices e sem a massa de dados das migrações.
+ * Todo método declarado nos repositórios precisa estar em queries() ou em EXCLUDED, com o motivo.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@Import(QueryPlanTests.StatementCaptureConfig.class)
+public class QueryPlanTests {
+
+    private static final List<Statement> captured = new ArrayList<>();
+
+    private static final List<Class<?>> REPOSITORIES = List.of(UserRepository.class, RoleRepository.class,
+            PasswordRecoverRepository.class, EmailOutboxRepository.class, CategoryRepository.class,
+            ProductRepository.class, ProductRepositoryCustom.class);
+
+    // Leituras que percorrem a tabela inteira por definição, sem filtro que um índice possa atender
+    private static final Map<String, String> EXCLUDED = Map.of(
+            "ProductRepository.searchProductNamesWithCategories",
+            "carga do índice de busca em memória: lê todos os produtos uma vez na subida",
+            "ProductRepository.searchProductCategoryIds",
+            "carga do bitmap de categorias: lê todos os pares produto/categoria uma vez na subida",
+            "ProductRepository.searchCategoryFacets",
+            "facetas do catálogo inteiro: agrupa todos os produtos, e o filtro é só substring do nome",
+            "CategoryRepository.searchVersion",
+            "versão do cache de categorias: COUNT, SUM e MAX sobre a tabela inteira, que é pequena");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordRecoverRepository passwordRecoverRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        synchronized (captured) {
+            captured.clear();
+        }
+    }
+
+    static Stream<Arguments> queries() {
+        return Stream.of(
+                Arguments.of("UserRepository.findByEmail", (RepositoryCall) t ->
+                        t.userRepository.findByEmail("maria@gmail.com").getRoles().size()),
+                Arguments.of("UserRepository.searchUserAndRolesByEmail", (RepositoryCall) t ->
+                        t.userRepository.searchUserAndRolesByEmail("maria@gmail.com")),
+                Arguments.of("RoleRepository.findByAuthority", (RepositoryCall) t ->
+                        t.roleRepository.findByAuthority("ROLE_ADMIN")),
+                Arguments.of("PasswordRecoverRepository.searchValidToken", (RepositoryCall) t ->
+                        t.passwordRecoverRepository.searchValidToken("abc", Instant.now())),
+                Arguments.of("PasswordRecoverRepository.searchExpiredIds", (RepositoryCall) t ->
+                        t.passwordRecoverRepository.searchExpiredIds(Instant.now(), PageRequest.of(0, 500))),
+                Arguments.of("PasswordRecoverRepository.consume", (RepositoryCall) t ->
+                        t.passwordRecoverRepository.consume(1L)),
+                Arguments.of("EmailOutboxRepository.searchDue", (RepositoryCall) t ->
+                        t.emailOutboxRepository.searchDue(EmailOutboxStatus.PENDING, Instant.now(), PageRequest.of(0, 50))),
+                Arguments.of("EmailOutboxRepository.searchFinishedIds", (RepositoryCall) t ->
+                        t.emailOutboxRepository.searchFinishedIds(EmailOutboxStatus.SENT, Instant.now(), PageRequest.of(0, 500))),
+                Arguments.of("EmailOutboxRepository.countByStatus", (RepositoryCall) t ->
+                        t.emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING)),
+                Arguments.of("EmailOutboxRepository.expirePending", (RepositoryCall) t ->
+                        t.emailOutboxRepository.expirePending(Instant.now())),
+                Arguments.of("CategoryRepository.searchExistingIds", (RepositoryCall) t ->
+                        t.categoryRepository.searchExistingIds(List.of(1L, 2L))),
+                Arguments.of("ProductRepository.searchVersion", (RepositoryCall) t ->
+                        t.productRepository.searchVersion(1L)),
+                Arguments.of("ProductRepository.searchCategoryIds", (RepositoryCall) t ->
+                        t.productRepository.searchCategoryIds(1L)),
+                Arguments.of("ProductRepository.searchProductsWithCategories", (RepositoryCall) t ->
+                        t.productRepository.searchProductsWithCategories(List.of(1L, 2L, 3L))),
+                Arguments.of("ProductRepository.searchProducts", (RepositoryCall) t ->
+                        t.productRepository.searchProducts(List.of(2L), "", PageRequest.of(0, 12))),
+                Arguments.of("ProductRepository.searchProducts (sem filtro)", (RepositoryCall) t ->
+                        t.productRepository.searchProducts(List.of(), "", PageRequest.of(0, 12))),
+                Arguments.of("ProductRepository.searchProductsSlice", (RepositoryCall) t ->
+                        t.productRepository.searchProductsSlice(List.of(2L), "", PageRequest.of(0, 12))),
+                Arguments.of("ProductRepository.countProducts", (RepositoryCall) t ->
+                        t.productRepository.countProducts(List.of(2L), "")),
+                Arguments.of("ProductRepository.searchProductsFirst", (RepositoryCall) t ->
+                        t.productRepository.searchProductsFirst(List.of(2L), "", 12)),
+                Arguments.of("ProductRepository.searchProductsAfter", (RepositoryCall) t ->
+                        t.productRepository.searchProductsAfter(List.of(2L), "", "PC Gamer", 4L, 12)),
+                Arguments.of("ProductRepository.searchProductsInAllCategories", (RepositoryCall) t ->
+                        t.productRepository.searchProductsInAllCategories(List.of(1L, 3L), 2, "", PageRequest.of(0, 12))),
+                Arguments.of("ProductRepository.searchProductsByIds", (RepositoryCall) t ->
+                        t.productRepository.searchProductsByIds(List.of(1L, 2L, 3L), "", PageRequest.of(0, 12))),
+                Arguments.of("ProductRepository.searchProductsInAllCategoriesSlice", (RepositoryCall) t ->
+                        t.productRepository.searchProductsInAllCategoriesSlice(List.of(1L, 3L), 2, "", PageRequest.of(0, 12))),
+                Arguments.of("ProductRepository.countProductsInAllCategories", (RepositoryCall) t ->
+                        t.productRepository.countProductsInAllCategories(List.of(1L, 3L), 2, "tv")),
+                Arguments.of("ProductRepository.searchProductsByIdsSlice", (RepositoryCall) t ->
+                        t.productRepository.searchProductsByIdsSlice(List.of(1L, 2L, 3L), "", PageRequest.of(0, 12))),
+                Arguments.of("ProductRepository.searchProductsByNameFirst", (RepositoryCall) t ->
+                        t.productRepository.searchProductsByNameFirst("", 1000)),
+                Arguments.of("ProductRepository.searchProductsByNameAfter", (RepositoryCall) t ->
+                        t.productRepository.searchProductsByNameAfter("", "PC Gamer", 4L, 1000)),
+                Arguments.of("ProductRepository.searchProductListing", (RepositoryCall) t ->
+                        t.productRepository.searchProductListing(List.of(2L), "", 0, 12)),
+                Arguments.of("ProductRepository.streamProductExport", (RepositoryCall) t -> {
+                    try (var rows = t.productRepository.streamProductExport(List.of(2L), "")) {
+                        rows.forEach(row -> { });
+                    }
+                }),
+                Arguments.of("ProductRepositoryCustom.searchProductsSorted (preço)", (RepositoryCall) t ->
+                        t.productRepository.searchProductsSorted(List.of(), false, "",
+                                new ProductRangeFilter(100.0, 500.0, null, null), ProductSort.PRICE,
+                                Sort.Direction.ASC, PageRequest.of(0, 12), false)),
+                Arguments.of("ProductRepositoryCustom.searchProductsSorted (data)", (RepositoryCall) t ->
+                        t.productRepository.searchProductsSorted(List.of(), false, "",
+                                new ProductRangeFilter(null, null, Instant.parse("2020-07-14T00:00:00Z"),
+                                        Instant.parse("2020-07-15T00:00:00Z")), ProductSort.DATE,
+                                Sort.Direction.DESC, PageRequest.of(0, 12), false))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    public void queryShouldNotScanWholeTable(String name, RepositoryCall call) throws Exception {
+        call.run(this);
+
+        List<Statement> statements;
+        synchronized (captured) {
+            statements = List.copyOf(captured);
+        }
+        Assertions.assertFalse(statements.isEmpty(), name + " não enviou nenhuma consulta");
+
+        for (Statement statement : statements) {
+            String plan = explain(statement);
+            Assertions.assertFalse(plan.contains(".tableScan"),
+                    name + " faz varredura completa:\n" + statement.sql() + "\n" + plan);
+        }
+    }
+
+    @Test
+    public void everyRepositoryMethodShouldBeCheckedOrExcluded() {
+        Set<String> checked = queries()
+                .map(arguments -> ((String) arguments.get()[0]).split(" \\(")[0])
+                .collect(Collectors.toSet());
+
+        Set<String> missing = new TreeSet<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                String name = repository.getSimpleName() + "." + method.getName();
+                if (!method.isSynthetic() && !checked.contains(name) && !EXCLUDED.containsKey(name)) {
+                    missing.add(name);
+                }
+            }
+        }
+        Assertions.assertTrue(missing.isEmpty(), "Métodos sem plano verificado nem exclusão: " + missing);
+    }
+
+    // Prepara o EXPLAIN com o mesmo SQL e repete sobre ele as chamadas set* da consulta original
+    private String explain(Statement statement) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+            for (Binding binding : statement.bindings()) {
+                binding.method().invoke(explain, binding.args());
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    @FunctionalInterface
+    interface RepositoryCall {
+        void run(QueryPlanTests t) throws Exception;
+    }
+
+    record Binding(Method method, Object[] args) {
+    }
+
+    record Statement(String sql, List<Binding> bindings) {
+    }
+
+    /**
+     * Envolve o DataSource de teste em proxies JDBC que anotam o SQL de cada PreparedStatement
+     * e os parâmetros vinculados no momento da execução.
+     */
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        static BeanPostProcessor statementCapture() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? capturing(dataSource) : bean;
+                }
+            };
+        }
+
+        private static DataSource capturing(DataSource target) {
+            return proxy(DataSource.class, target, (proxy, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection connection ? capturing(connection) : result;
+            });
+        }
+
+        private static Connection capturing(Connection target) {
+            return proxy(Connection.class, target, (proxy, method, args) -> {
+                Object result = invoke(target, method, args);
+                if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                    return capturing(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement capturing(PreparedStatement target, String sql) {
+            List<Binding> bindings = new ArrayList<>();
+            return proxy(PreparedStatement.class, target, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && method.getParameterTypes()[0] == int.class) {
+                    bindings.add(new Binding(method, args.clone()));
+                }
+                else if (name.equals("clearParameters")) {
+                    bindings.clear();
+                }
+                else if ((name.equals("executeQuery") || name.equals("executeUpdate") || name.equals("execute"))
+                        && (args == null || args.length == 0) && explainable(sql)) {
+                    synchronized (captured) {
+                        captured.add(new Statement(sql, List.copyOf(bindings)));
+                    }
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private static boolean explainable(String sql) {
+            String statement = sql.trim();
+            return Stream.of("SELECT", "UPDATE", "DELETE")
+                    .anyMatch(command -> statement.regionMatches(true, 0, command, 0, command.length()));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(QueryPlanTests.class.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            }
+            catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.NewPasswordDTO;
+import com.devsuperior.dscatalog.entities.PasswordRecover;
+import com.devsuperior.dscatalog.repositories.PasswordRecoverRepository;
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@SpringBootTest
+@Transactional
+public class AuthServiceIT {
+
+    @Autowired
+    private AuthService service;
+
+    @Autowired
+    private PasswordRecoverPurgeService purgeService;
+
+    @Autowired
+    private PasswordRecoverRepository repository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    public void saveNewPasswordShouldUpdatePasswordAndConsumeTokenWhenTokenIsValid() {
+        repository.save(new PasswordRecover(null, AuthService.hashToken("valid-token"), "maria@gmail.com",
+                Instant.now().plusSeconds(600)));
+
+        service.saveNewPassword(new NewPasswordDTO("valid-token", "nova-senha-123"));
+
+        String password = userRepository.findByEmail("maria@gmail.com").getPassword();
+        Assertions.assertTrue(passwordEncoder.matches("nova-senha-123", password));
+        Assertions.assertEquals(0L, repository.count());
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> service.saveNewPassword(new NewPasswordDTO("valid-token", "outra-senha-123")));
+    }
+
+    @Test
+    public void saveNewPasswordShouldThrowResourceNotFoundExceptionWhenTokenIsExpired() {
+        repository.save(new PasswordRecover(null, AuthService.hashToken("expired-token"), "maria@gmail.com",
+                Instant.now().minusSeconds(1)));
+
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> service.saveNewPassword(new NewPasswordDTO("expired-token", "nova-senha-123")));
+    }
+
+    @Test
+    public void saveNewPasswordShouldThrowResourceNotFoundExceptionWhenTokenDoesNotExist() {
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> service.saveNewPassword(new NewPasswordDTO("unknown-token", "nova-senha-123")));
+    }
+
+    @Test
+    public void purgeExpiredShouldDeleteOnlyExpiredTokens() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 3; i++) {
+            repository.save(new PasswordRecover(null, AuthService.hashToken("expired-" + i), "maria@gmail.com",
+                    now.minusSeconds(60 + i)));
+        }
+        PasswordRecover valid = repository.save(new PasswordRecover(null, AuthService.hashToken("valid"),
+                "maria@gmail.com", now.plusSeconds(600)));
+
+        long deleted = purgeService.purgeExpired();
+
+        Assertions.assertEquals(3L, deleted);
+        Assertions.assertEquals(1L, repository.count());
+        Assertions.assertTrue(repository.existsById(valid.getId()));
+    }
+}
@@ -0,0 +1,172 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.EmailDTO;
+import com.devsuperior.dscatalog.entities.EmailOutbox;
+import com.devsuperior.dscatalog.entities.EmailOutboxStatus;
+import com.devsuperior.dscatalog.repositories.EmailOutboxRepository;
+import com.devsuperior.dscatalog.tests.FakeSmtpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Banco próprio e varredura desligada: só os lotes disparados pelo teste tocam a fila
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox",
+        "spring.mail.host=localhost",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "catalog.mail.outbox.poll-ms=3600000",
+        "catalog.mail.outbox.max-attempts=3"
+})
+public class EmailOutboxDispatcherIT {
+
+    private static final FakeSmtpServer smtp = new FakeSmtpServer();
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.port", smtp::getPort);
+    }
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailOutboxRepository repository;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private EmailOutboxPurgeService purgeService;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+        smtp.reset();
+    }
+
+    @AfterAll
+    static void stopServer() throws Exception {
+        smtp.close();
+    }
+
+    @Test
+    public void dispatchBatchShouldSendAllDueEmailsOverOneConnection() {
+        repository.saveAll(List.of(
+                new EmailOutbox("alex@gmail.com", "Assunto", "Texto 1"),
+                new EmailOutbox("maria@gmail.com", "Assunto", "Texto 2"),
+                new EmailOutbox("adieldantasn@gmail.com", "Assunto", "Texto 3")));
+
+        int claimed = dispatcher.dispatchBatch();
+
+        Assertions.assertEquals(3, claimed);
+        Assertions.assertEquals(3, smtp.getMessages().size());
+        Assertions.assertEquals(1, smtp.getConnections());
+        Assertions.assertEquals(3L, repository.countByStatus(EmailOutboxStatus.SENT));
+    }
+
+    @Test
+    public void dispatchBatchShouldRescheduleRejectedEmailWithBackoff() {
+        smtp.reject("bad@gmail.com");
+        EmailOutbox bad = repository.save(new EmailOutbox("bad@gmail.com", "Assunto", "Texto"));
+        repository.save(new EmailOutbox("maria@gmail.com", "Assunto", "Texto"));
+
+        dispatcher.dispatchBatch();
+
+        EmailOutbox result = repository.findById(bad.getId()).orElseThrow();
+        Assertions.assertEquals(EmailOutboxStatus.PENDING, result.getStatus());
+        Assertions.assertEquals(1, result.getAttempts());
+        Assertions.assertTrue(result.getNextAttemptAt().isAfter(Instant.now()));
+        Assertions.assertNotNull(result.getLastError());
+        Assertions.assertEquals(1L, repository.countByStatus(EmailOutboxStatus.SENT));
+
+        // Ainda no backoff: não é reservado de novo
+        Assertions.assertEquals(0, dispatcher.dispatchBatch());
+    }
+
+    @Test
+    public void dispatchBatchShouldDeadLetterEmailAfterMaxAttempts() {
+        smtp.reject("bad@gmail.com");
+        EmailOutbox entity = new EmailOutbox("bad@gmail.com", "Assunto", "Texto");
+        entity.setAttempts(2);
+        entity = repository.save(entity);
+
+        dispatcher.dispatchBatch();
+
+        EmailOutbox result = repository.findById(entity.getId()).orElseThrow();
+        Assertions.assertEquals(EmailOutboxStatus.DEAD, result.getStatus());
+        Assertions.assertEquals(3, result.getAttempts());
+        Assertions.assertEquals("", result.getBody());
+    }
+
+    @Test
+    public void expiredEmailShouldNotBeSentAndPurgeShouldClearItsBody() {
+        EmailOutbox expired = repository.save(new EmailOutbox("maria@gmail.com", "Assunto", "Link com token",
+                Instant.now().minusSeconds(1)));
+        EmailOutbox valid = repository.save(new EmailOutbox("alex@gmail.com", "Assunto", "Link com token",
+                Instant.now().plusSeconds(600)));
+
+        Assertions.assertEquals(1, dispatcher.dispatchBatch());
+        Assertions.assertEquals(List.of("alex@gmail.com"), smtp.getMessages().get(0).recipients());
+
+        Assertions.assertEquals(1, purgeService.expirePending());
+        EmailOutbox result = repository.findById(expired.getId()).orElseThrow();
+        Assertions.assertEquals(EmailOutboxStatus.DEAD, result.getStatus());
+        Assertions.assertEquals("", result.getBody());
+        Assertions.assertEquals(EmailOutboxStatus.SENT, repository.findById(valid.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void createRecoverTokenShouldQueueEmailAndDispatchAfterCommit() throws Exception {
+        authService.createRecoverToken(new EmailDTO("maria@gmail.com"));
+
+        Assertions.assertEquals(1L, repository.count());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (repository.countByStatus(EmailOutboxStatus.SENT) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(1, smtp.getMessages().size());
+        Assertions.assertEquals(List.of("maria@gmail.com"), smtp.getMessages().get(0).recipients());
+        Assertions.assertTrue(smtp.getMessages().get(0).data().contains("recover-password/"));
+
+        // Enviado, o token não fica mais na tabela de saída
+        EmailOutbox email = repository.findAll().get(0);
+        Assertions.assertEquals("", email.getBody());
+        Assertions.assertNotNull(email.getExpiresAt());
+    }
+
+    @Test
+    public void purgeFinishedShouldDeleteOnlySentAndDeadEmailsPastRetention() {
+        Instant now = Instant.now();
+        EmailOutbox oldSent = finished(EmailOutboxStatus.SENT, now.minus(Duration.ofDays(8)));
+        EmailOutbox recentSent = finished(EmailOutboxStatus.SENT, now.minus(Duration.ofDays(1)));
+        EmailOutbox oldDead = finished(EmailOutboxStatus.DEAD, now.minus(Duration.ofDays(31)));
+        EmailOutbox recentDead = finished(EmailOutboxStatus.DEAD, now.minus(Duration.ofDays(8)));
+        EmailOutbox oldPending = finished(EmailOutboxStatus.PENDING, now.minus(Duration.ofDays(31)));
+
+        long deleted = purgeService.purgeFinished();
+
+        Assertions.assertEquals(2L, deleted);
+        Assertions.assertFalse(repository.existsById(oldSent.getId()));
+        Assertions.assertFalse(repository.existsById(oldDead.getId()));
+        Assertions.assertTrue(repository.existsById(recentSent.getId()));
+        Assertions.assertTrue(repository.existsById(recentDead.getId()));
+        Assertions.assertTrue(repository.existsById(oldPending.getId()));
+    }
+
+    private EmailOutbox finished(EmailOutboxStatus status, Instant lastAttempt) {
+        EmailOutbox entity = new EmailOutbox("maria@gmail.com", "Assunto", "Texto");
+        entity.setStatus(status);
+        entity.setNextAttemptAt(lastAttempt);
+        return repository.save(entity);
+    }
+}
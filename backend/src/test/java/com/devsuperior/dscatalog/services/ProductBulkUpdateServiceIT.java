@@ -0,0 +1,59 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.BulkUpdateResultDTO;
+import com.devsuperior.dscatalog.dto.ProductBulkUpdateDTO;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+public class ProductBulkUpdateServiceIT {
+
+    @Autowired
+    private ProductBulkUpdateService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void updateShouldMultiplyPriceOfProductsInCategory() {
+        ProductBulkUpdateDTO dto = new ProductBulkUpdateDTO();
+        dto.getCategoryIds().add(1L);
+        dto.setPriceFactor(0.9);
+
+        BulkUpdateResultDTO result = service.update(dto);
+
+        Assertions.assertEquals(1L, result.getAffected());
+        Assertions.assertEquals(1971.0, jdbcTemplate.queryForObject("SELECT price FROM tb_product WHERE id = 2", Double.class));
+        Assertions.assertEquals(1L, jdbcTemplate.queryForObject("SELECT version FROM tb_product WHERE id = 2", Long.class));
+    }
+
+    @Test
+    public void updateShouldReplaceImgUrlPrefixOfSelectedIds() {
+        ProductBulkUpdateDTO dto = new ProductBulkUpdateDTO();
+        dto.getIds().addAll(List.of(1L, 2L));
+        dto.setImgUrlPrefix("https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/");
+        dto.setNewImgUrlPrefix("https://cdn.example.com/img/");
+
+        BulkUpdateResultDTO result = service.update(dto);
+
+        Assertions.assertEquals(2L, result.getAffected());
+        Assertions.assertEquals("https://cdn.example.com/img/1-big.jpg",
+                jdbcTemplate.queryForObject("SELECT img_url FROM tb_product WHERE id = 1", String.class));
+    }
+
+    @Test
+    public void updateShouldThrowBadRequestExceptionWhenNoFilter() {
+        ProductBulkUpdateDTO dto = new ProductBulkUpdateDTO();
+        dto.setPrice(10.0);
+
+        Assertions.assertThrows(BadRequestException.class, () -> service.update(dto));
+    }
+}
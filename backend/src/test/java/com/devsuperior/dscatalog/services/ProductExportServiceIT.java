@@ -0,0 +1,50 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.ExportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+@SpringBootTest
+public class ProductExportServiceIT {
+
+    @Autowired
+    private ProductExportService service;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void exportShouldWriteOneJsonLinePerProduct() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = service.export("0", "", ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(25L, count);
+        Assertions.assertEquals(25, lines.length);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        Assertions.assertEquals(1L, first.get("id").asLong());
+        Assertions.assertEquals("The Lord of the Rings", first.get("name").asText());
+        Assertions.assertFalse(first.get("categories").isEmpty());
+    }
+
+    @Test
+    public void exportShouldHonorFiltersWhenCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = service.export("1,3", "smart", ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        Assertions.assertEquals(1L, count);
+        Assertions.assertEquals("id,name,description,price,imgUrl,date,categoryIds,categoryNames", lines[0]);
+        Assertions.assertTrue(lines[1].startsWith("2,Smart TV,"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.ProductImportReportDTO;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Sem transação em volta do teste: cada bloco faz o próprio commit, como em produção
+@SpringBootTest(properties = "catalog.products.import.chunk-size=2")
+public class ProductImportServiceIT {
+
+    @Autowired
+    private ProductImportService service;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long lastIdBefore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lastIdBefore = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tb_product", Long.class);
+    }
+
+    // Os commits são reais, então os produtos importados saem ao fim de cada teste
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tb_product_category WHERE product_id > ?", lastIdBefore);
+        jdbcTemplate.update("DELETE FROM tb_product WHERE id > ?", lastIdBefore);
+    }
+
+    @Test
+    public void importProductsShouldInsertValidRowsAndReportInvalidOnesWhenNdjson() throws Exception {
+        String body = """
+                {"name":"Phone Alpha","description":"Good phone","price":800.0,"imgUrl":"http://img.com/1.png","categories":[{"id":1},{"id":3}]}
+                {"name":"Ph","description":"Short name","price":10.0,"imgUrl":"http://img.com/2.png","categories":[{"id":1}]}
+                {"name":"Phone Gamma","description":"Unknown category","price":10.0,"imgUrl":"http://img.com/3.png","categories":[{"id":999}]}
+                """;
+        long countBefore = repository.count();
+
+        ProductImportReportDTO report = service.importProducts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertEquals(3L, report.getReceived());
+        Assertions.assertEquals(1L, report.getImported());
+        Assertions.assertEquals(2L, report.getFailed());
+        Assertions.assertEquals(2L, report.getErrors().get(0).getRow());
+        Assertions.assertEquals("name", report.getErrors().get(0).getField());
+        Assertions.assertEquals(3L, report.getErrors().get(1).getRow());
+        Assertions.assertEquals(countBefore + 1, repository.count());
+
+        Long id = repository.findAll().stream()
+                .filter(product -> product.getName().equals("Phone Alpha"))
+                .findFirst().orElseThrow().getId();
+        Assertions.assertEquals(Set.of(1L, 3L), repository.searchCategoryIds(id));
+    }
+
+    @Test
+    public void importProductsShouldReadJsonArray() throws Exception {
+        String body = """
+                [
+                  {"name":"Phone Alpha","description":"Good phone","price":800.0,"imgUrl":"http://img.com/1.png","categories":[{"id":1}]},
+                  {"name":"Phone Beta","description":"Good phone","price":900.0,"imgUrl":"http://img.com/2.png","categories":[{"id":2}]}
+                ]
+                """;
+        long countBefore = repository.count();
+
+        ProductImportReportDTO report = service.importProducts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertEquals(2L, report.getImported());
+        Assertions.assertTrue(report.getErrors().isEmpty());
+        Assertions.assertEquals(countBefore + 2, repository.count());
+    }
+
+    @Test
+    public void importProductsShouldKeepCommittedChunksWhenLaterChunkFails() {
+        // img_url é VARCHAR(255) sem validação de tamanho no DTO: o erro só aparece no INSERT do segundo bloco
+        String longUrl = "http://img.com/" + "a".repeat(300) + ".png";
+        String body = """
+                {"name":"Phone Alpha","description":"Good phone","price":800.0,"imgUrl":"http://img.com/1.png","categories":[{"id":1}]}
+                {"name":"Phone Beta","description":"Good phone","price":900.0,"imgUrl":"http://img.com/2.png","categories":[{"id":2}]}
+                {"name":"Phone Gamma","description":"Good phone","price":700.0,"imgUrl":"http://img.com/3.png","categories":[{"id":1}]}
+                {"name":"Phone Delta","description":"Too long url","price":600.0,"imgUrl":"%s","categories":[{"id":1}]}
+                """.formatted(longUrl);
+        long countBefore = repository.count();
+
+        Assertions.assertThrows(DataAccessException.class,
+                () -> service.importProducts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+
+        Set<String> names = repository.findAll().stream()
+                .filter(product -> product.getId() > lastIdBefore)
+                .map(Product::getName)
+                .collect(Collectors.toSet());
+        Assertions.assertEquals(Set.of("Phone Alpha", "Phone Beta"), names);
+        Assertions.assertEquals(countBefore + 2, repository.count());
+    }
+}
@@ -0,0 +1,91 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.TotalMode;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+public class ProductPageCacheTests {
+
+    private ProductPageCache cache;
+    private ProductPageCache.CachedPage page;
+    private ProductPageCache.Key allProductsKey;
+    private ProductPageCache.Key booksKey;
+    private ProductPageCache.Key computersKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cache = new ProductPageCache(true, 100, 60, false, 5, new SimpleMeterRegistry());
+        page = ProductPageCache.CachedPage.of(new PageImpl<>(List.of()));
+        allProductsKey = cache.key(List.of(), false, "", TotalMode.EXACT, PageRequest.of(0, 12));
+        booksKey = cache.key(List.of(2L), false, "", TotalMode.EXACT, PageRequest.of(0, 12));
+        computersKey = cache.key(List.of(3L), false, "", TotalMode.EXACT, PageRequest.of(0, 12));
+
+        cache.put(allProductsKey, page, cache.generation());
+        cache.put(booksKey, page, cache.generation());
+        cache.put(computersKey, page, cache.generation());
+    }
+
+    @Test
+    public void keyShouldBeNormalized() {
+        ProductPageCache.Key key = cache.key(List.of(3L, 2L), false, " PC ", TotalMode.EXACT, PageRequest.of(0, 12));
+        ProductPageCache.Key other = cache.key(List.of(2L, 3L), false, "pc", TotalMode.EXACT, PageRequest.of(0, 12));
+
+        Assertions.assertEquals(key, other);
+    }
+
+    @Test
+    public void onProductChangedShouldInvalidateOnlyAffectedCategoriesAndUnfilteredPages() {
+        cache.onProductChanged(new ProductChangedEvent(1L, "The Lord of the Rings", Set.of(2L), Set.of(2L)));
+
+        Assertions.assertNull(cache.get(allProductsKey));
+        Assertions.assertNull(cache.get(booksKey));
+        Assertions.assertNotNull(cache.get(computersKey));
+    }
+
+    @Test
+    public void putShouldBeDiscardedWhenInvalidatedDuringSearch() {
+        ProductPageCache.Key key = cache.key(List.of(1L), false, "", TotalMode.EXACT, PageRequest.of(0, 12));
+        long generation = cache.generation();
+        cache.onProductChanged(ProductChangedEvent.deleted(2L, Set.of(1L, 3L)));
+        cache.put(key, page, generation);
+
+        Assertions.assertNull(cache.get(key));
+    }
+
+    @Test
+    public void putShouldBeDiscardedWithinReplicaLagAfterInvalidation() {
+        ProductPageCache replicaCache = new ProductPageCache(true, 100, 60, true, 60, new SimpleMeterRegistry());
+        Assertions.assertNotEquals(ProductPageCache.NO_CACHE, replicaCache.generation());
+
+        replicaCache.onProductChanged(ProductChangedEvent.deleted(2L, Set.of(1L)));
+        replicaCache.put(booksKey, page, replicaCache.generation());
+
+        Assertions.assertEquals(ProductPageCache.NO_CACHE, replicaCache.generation());
+        Assertions.assertNull(replicaCache.get(booksKey));
+    }
+
+    @Test
+    public void cachedPageDigestShouldChangeOnlyWhenContentChanges() {
+        ProductDTO product = new ProductDTO(1L, "The Lord of the Rings", "Lorem ipsum", 90.5, "1-big.jpg",
+                Instant.parse("2020-07-13T20:50:07.123450Z"));
+        ProductDTO renamed = new ProductDTO(1L, "The Hobbit", "Lorem ipsum", 90.5, "1-big.jpg",
+                Instant.parse("2020-07-13T20:50:07.123450Z"));
+
+        String digest = ProductPageCache.CachedPage.of(new PageImpl<>(List.of(product))).digest();
+
+        Assertions.assertEquals(digest, ProductPageCache.CachedPage.of(new PageImpl<>(List.of(product))).digest());
+        Assertions.assertNotEquals(digest, ProductPageCache.CachedPage.of(new PageImpl<>(List.of(renamed))).digest());
+        Assertions.assertNotEquals(digest, ProductPageCache.CachedPage.of(
+                new PageImpl<>(List.of(product), PageRequest.of(0, 12), 13)).digest());
+    }
+}
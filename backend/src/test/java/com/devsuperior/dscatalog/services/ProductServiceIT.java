@@ -1,8 +1,16 @@
 package com.devsuperior.dscatalog.services;
 
+import com.devsuperior.dscatalog.dto.CategoryFacetDTO;
+import com.devsuperior.dscatalog.dto.CategoryMatch;
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+import com.devsuperior.dscatalog.dto.LinkMode;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductRangeFilter;
+import com.devsuperior.dscatalog.dto.TotalMode;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.services.search.CategoryBitmapIndex;
 import com.devsuperior.dscatalog.tests.Factory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,9 +19,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @SpringBootTest
 @Transactional
 public class ProductServiceIT {
@@ -24,6 +38,9 @@ public class ProductServiceIT {
     @Autowired
     private ProductRepository repository;
 
+    @Autowired
+    private CategoryBitmapIndex categoryBitmapIndex;
+
     private Long existingId;
     private Long nonExistingId;
     private Long countTotalProducts;
@@ -48,6 +65,49 @@ public class ProductServiceIT {
         Assertions.assertEquals(countTotalProducts, result.getTotalElements());
     }
 
+    @Test
+    public void findAllPagedShouldSortByPriceDescWhenSortKeyIsWhitelisted() {
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "price"));
+
+        Slice<ProductDTO> result = service.findAllPaged("0", CategoryMatch.ANY, "", TotalMode.EXACT, LinkMode.NONE, pageRequest);
+
+        Assertions.assertEquals("PC Gamer Foo", result.getContent().get(0).getName());
+        Assertions.assertEquals("PC Gamer Boo", result.getContent().get(1).getName());
+        Assertions.assertEquals("PC Gamer Max", result.getContent().get(2).getName());
+    }
+
+    @Test
+    public void findAllPagedShouldFilterByPriceRange() {
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("price"));
+        ProductRangeFilter range = new ProductRangeFilter(2200.0, 2400.0, null, null);
+
+        Page<ProductDTO> result = (Page<ProductDTO>) service.findAllPaged("0", CategoryMatch.ANY, "", range,
+                TotalMode.EXACT, LinkMode.NONE, pageRequest);
+
+        Assertions.assertEquals(5L, result.getTotalElements());
+        Assertions.assertTrue(result.getContent().stream().allMatch(dto -> dto.getPrice() >= 2200.0 && dto.getPrice() <= 2400.0));
+    }
+
+    @Test
+    public void findAllPagedShouldThrowBadRequestExceptionWhenSortKeyIsNotWhitelisted() {
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("description"));
+
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            service.findAllPaged("0", CategoryMatch.ANY, "", TotalMode.EXACT, LinkMode.NONE, pageRequest);
+        });
+    }
+
+    @Test
+    public void findCategoryFacetsShouldCountProductsPerCategoryForName() {
+        List<CategoryFacetDTO> facets = service.findCategoryFacets("smart");
+
+        Assertions.assertEquals(2, facets.size());
+        Assertions.assertEquals("Computadores", facets.get(0).getName());
+        Assertions.assertEquals(1L, facets.get(0).getCount());
+        Assertions.assertEquals("Eletrônicos", facets.get(1).getName());
+        Assertions.assertEquals(1L, facets.get(1).getCount());
+    }
+
     @Test
     public void findAllPagedShouldReturnEmptyPageWhenPageDoesNotExists() {
         PageRequest pageRequest = PageRequest.of(50, 10);
@@ -67,6 +127,139 @@ public class ProductServiceIT {
         Assertions.assertEquals("PC Gamer Alfa", result.getContent().get(2).getName());
     }
 
+    @Test
+    public void findAllPagedShouldReturnSliceWithoutTotalWhenTotalIsNone() {
+        PageRequest pageRequest = PageRequest.of(2, 10);
+        Slice<ProductDTO> result = service.findAllPaged("0", CategoryMatch.ANY, "", TotalMode.NONE, LinkMode.ALL, pageRequest);
+
+        Assertions.assertFalse(result instanceof Page);
+        Assertions.assertEquals(5, result.getNumberOfElements());
+        Assertions.assertFalse(result.hasNext());
+    }
+
+    @Test
+    public void findAllPagedShouldReturnEstimatedTotalWhenTotalIsEstimate() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<ProductDTO> result = (Page<ProductDTO>) service.findAllPaged("0", CategoryMatch.ANY, "", TotalMode.ESTIMATE, LinkMode.ALL, pageRequest);
+
+        Assertions.assertEquals(10, result.getNumberOfElements());
+        Assertions.assertEquals(countTotalProducts, result.getTotalElements());
+    }
+
+    @Test
+    public void findAllPagedShouldReturnOnlyProductsInAllCategoriesWhenCategoryMatchIsAll() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Slice<ProductDTO> result = service.findAllPaged("1,3", CategoryMatch.ALL, "", TotalMode.EXACT, LinkMode.ALL, pageRequest);
+
+        Assertions.assertEquals(1, result.getNumberOfElements());
+        Assertions.assertEquals("Smart TV", result.getContent().get(0).getName());
+    }
+
+    @Test
+    public void findAllPagedShouldReturnSamePagesWhenCategoryBitmapIsUsed() {
+        String[][] filters = {{"1,3", "any", ""}, {"1,3", "any", "a"}, {"1,3", "all", ""}, {"2", "any", "o"}};
+        List<List<Object>> expected = pages(filters);
+
+        // Primeiro com a lista IN; com max-in-ids 0 percorre tb_product por nome, em blocos de 4 linhas
+        Object target = AopTestUtils.getTargetObject(service);
+        ReflectionTestUtils.setField(categoryBitmapIndex, "enabled", true);
+        categoryBitmapIndex.build();
+        try {
+            Assertions.assertEquals(expected, pages(filters));
+
+            ReflectionTestUtils.setField(target, "maxBitmapInIds", 0);
+            ReflectionTestUtils.setField(target, "bitmapWalkChunk", 4);
+            Assertions.assertEquals(expected, pages(filters));
+        }
+        finally {
+            ReflectionTestUtils.setField(target, "maxBitmapInIds", 2000);
+            ReflectionTestUtils.setField(target, "bitmapWalkChunk", 1000);
+            ReflectionTestUtils.setField(categoryBitmapIndex, "ready", false);
+            ReflectionTestUtils.setField(categoryBitmapIndex, "enabled", false);
+        }
+    }
+
+    // Ids, total e hasNext de cada página de 3 produtos, nos modos exact e none
+    private List<List<Object>> pages(String[][] filters) {
+        List<List<Object>> result = new ArrayList<>();
+        for (String[] filter : filters) {
+            for (int number = 0; number < 5; number++) {
+                PageRequest pageRequest = PageRequest.of(number, 3);
+                Page<ProductDTO> page = (Page<ProductDTO>) service.findAllPaged(filter[0], CategoryMatch.of(filter[1]),
+                        filter[2], TotalMode.EXACT, LinkMode.NONE, pageRequest);
+                Slice<ProductDTO> slice = service.findAllPaged(filter[0], CategoryMatch.of(filter[1]),
+                        filter[2], TotalMode.NONE, LinkMode.NONE, pageRequest);
+                result.add(List.of(String.join("|", filter), number, page.map(ProductDTO::getId).getContent(),
+                        page.getTotalElements(), slice.map(ProductDTO::getId).getContent(), slice.hasNext()));
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void findAllPagedShouldNotAddLinksWhenLinksIsNone() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Slice<ProductDTO> result = service.findAllPaged("0", CategoryMatch.ANY, "", TotalMode.EXACT, LinkMode.NONE, pageRequest);
+
+        Assertions.assertFalse(result.isEmpty());
+        Assertions.assertFalse(result.getContent().get(0).hasLinks());
+    }
+
+    @Test
+    public void findAllPagedShouldReturnSamePageWhenSingleQueryIsEnabled() {
+        PageRequest pageRequest = PageRequest.of(1, 10);
+        Page<ProductDTO> expected = service.findAllPaged("0", "", pageRequest);
+
+        Object target = AopTestUtils.getTargetObject(service);
+        ReflectionTestUtils.setField(target, "singleQuery", true);
+        try {
+            Page<ProductDTO> result = service.findAllPaged("0", "", pageRequest);
+
+            Assertions.assertEquals(expected.getTotalElements(), result.getTotalElements());
+            Assertions.assertEquals(expected.map(ProductDTO::getId).getContent(), result.map(ProductDTO::getId).getContent());
+            Assertions.assertEquals(expected.getContent().get(0).getCategories().size(), result.getContent().get(0).getCategories().size());
+            Assertions.assertEquals(expected.getContent().get(0).getDate(), result.getContent().get(0).getDate());
+        }
+        finally {
+            ReflectionTestUtils.setField(target, "singleQuery", false);
+        }
+    }
+
+    @Test
+    public void findAllByCursorShouldWalkAllProductsInNameOrderWithoutRepeating() {
+        CursorPageDTO<ProductDTO> first = service.findAllByCursor("0", "", null, 10);
+
+        Assertions.assertEquals(10, first.getContent().size());
+        Assertions.assertEquals("Macbook Pro", first.getContent().get(0).getName());
+        Assertions.assertNotNull(first.getNext());
+
+        CursorPageDTO<ProductDTO> second = service.findAllByCursor("0", "", first.getNext(), 10);
+        CursorPageDTO<ProductDTO> third = service.findAllByCursor("0", "", second.getNext(), 10);
+
+        Assertions.assertEquals(10, second.getContent().size());
+        Assertions.assertEquals(5, third.getContent().size());
+        Assertions.assertNull(third.getNext());
+        Assertions.assertTrue(first.getContent().get(9).getName().compareTo(second.getContent().get(0).getName()) < 0);
+    }
+
+    @Test
+    public void findAllByCursorShouldThrowBadRequestExceptionWhenCursorIsInvalid() {
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            service.findAllByCursor("0", "", "@@@", 10);
+        });
+    }
+
+    @Test
+    public void findAllByCursorShouldThrowBadRequestExceptionWhenSizeExceedsMaxPageSize() {
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            service.findAllByCursor("0", "", null, 2001);
+        });
+        Assertions.assertThrows(BadRequestException.class, () -> {
+            service.findAllByCursor("0", "", null, Integer.MAX_VALUE);
+        });
+        Assertions.assertEquals(25, service.findAllByCursor("0", "", null, 2000).getContent().size());
+    }
+
     @Test
     public void findByIdShouldReturnProductDTOTWhenIdExists() {
         ProductDTO result = service.findById(existingId);
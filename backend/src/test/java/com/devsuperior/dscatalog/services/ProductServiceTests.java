@@ -1,12 +1,18 @@
 package com.devsuperior.dscatalog.services;
 
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.CategoryMatch;
+import com.devsuperior.dscatalog.dto.LinkMode;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.TotalMode;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.services.search.CategoryBitmapIndex;
+import com.devsuperior.dscatalog.services.search.ProductSearchIndex;
 import com.devsuperior.dscatalog.tests.Factory;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Assertions;
@@ -17,15 +23,22 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @ExtendWith(SpringExtension.class)
 public class ProductServiceTests {
@@ -39,6 +52,21 @@ public class ProductServiceTests {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private CategoryBitmapIndex categoryBitmapIndex;
+
+    @Spy
+    private ProductLinkFactory linkFactory = new ProductLinkFactory();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ProductPageCache pageCache;
+
     private long existingId;
     private long nonExistingId;
     private long dependentId;
@@ -61,12 +89,15 @@ public class ProductServiceTests {
         Mockito.when(repository.findById(nonExistingId)).thenReturn(Optional.empty());
 
         Mockito.when(repository.findAll((Pageable) ArgumentMatchers.any())).thenReturn(page);
+        Mockito.when(repository.searchProducts(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(Page.empty());
 
         Mockito.when(repository.save(ArgumentMatchers.any())).thenReturn(product);
 
         Mockito.when(repository.getReferenceById(existingId)).thenReturn(product);
         Mockito.when(repository.getReferenceById(nonExistingId)).thenThrow(EntityNotFoundException.class);
 
+        Mockito.when(categoryRepository.searchExistingIds(ArgumentMatchers.any())).thenReturn(Set.of(existingId));
         Mockito.when(categoryRepository.getReferenceById(existingId)).thenReturn(category);
         Mockito.when(categoryRepository.getReferenceById(nonExistingId)).thenThrow(EntityNotFoundException.class);
 
@@ -97,7 +128,55 @@ public class ProductServiceTests {
         Page<ProductDTO> result = service.findAllPaged(null, null, pageable);
 
         Assertions.assertNotNull(result);
-        Mockito.verify(repository).findAll(pageable);
+        Mockito.verify(repository).searchProducts(List.of(), "", pageable);
+    }
+
+    @Test
+    public void findAllPagedShouldNotCountWhenBitmapResolvesCategoriesAndTotalIsNone() {
+        Pageable pageable = PageRequest.of(0, 10);
+        ReflectionTestUtils.setField(service, "maxBitmapInIds", 10_000);
+        Mockito.when(categoryBitmapIndex.isReady()).thenReturn(true);
+        Mockito.when(categoryBitmapIndex.resolve(List.of(1L, 3L), false)).thenReturn(Roaring64Bitmap.bitmapOf(1L, 2L));
+        Mockito.when(repository.searchProductsByIdsSlice(List.of(1L, 2L), "tv", pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        Slice<ProductDTO> result = service.findAllPaged("1,3", CategoryMatch.ANY, "tv", TotalMode.NONE, LinkMode.NONE, pageable);
+
+        Assertions.assertFalse(result instanceof Page);
+        Mockito.verify(repository, Mockito.never()).searchProductsByIds(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.verify(repository, Mockito.never()).countProducts(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void findAllPagedShouldNotCountWhenCategoryMatchIsAllAndTotalIsNone() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Mockito.when(repository.searchProductsInAllCategoriesSlice(List.of(1L, 3L), 2, "", pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        Slice<ProductDTO> result = service.findAllPaged("1,3", CategoryMatch.ALL, "", TotalMode.NONE, LinkMode.NONE, pageable);
+
+        Assertions.assertFalse(result instanceof Page);
+        Mockito.verify(repository, Mockito.never()).searchProductsInAllCategories(ArgumentMatchers.any(),
+                ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.verify(repository, Mockito.never()).countProductsInAllCategories(ArgumentMatchers.any(),
+                ArgumentMatchers.anyLong(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void findAllPagedShouldUseBitmapCardinalityAsTotalWhenNameIsEmpty() {
+        Pageable pageable = PageRequest.of(0, 10);
+        ReflectionTestUtils.setField(service, "maxBitmapInIds", 10_000);
+        Mockito.when(categoryBitmapIndex.isReady()).thenReturn(true);
+        Mockito.when(categoryBitmapIndex.resolve(List.of(1L, 3L), true)).thenReturn(Roaring64Bitmap.bitmapOf(1L, 2L, 5L));
+        Mockito.when(repository.searchProductsByIdsSlice(List.of(1L, 2L, 5L), "", pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        Page<ProductDTO> result = (Page<ProductDTO>) service.findAllPaged("1,3", CategoryMatch.ALL, "", TotalMode.EXACT,
+                LinkMode.NONE, pageable);
+
+        Assertions.assertEquals(3, result.getTotalElements());
+        Mockito.verify(repository, Mockito.never()).countProductsInAllCategories(ArgumentMatchers.any(),
+                ArgumentMatchers.anyLong(), ArgumentMatchers.any());
     }
 
     @Test
@@ -119,6 +198,29 @@ public class ProductServiceTests {
         });
     }
 
+    @Test
+    public void updateShouldOnlyAddMissingCategoriesWhenCategoriesChange() {
+        Category newCategory = new Category(3L, "Computers");
+        productDTO.getCategories().add(new CategoryDTO(newCategory));
+        Mockito.when(categoryRepository.searchExistingIds(Set.of(existingId, 3L))).thenReturn(Set.of(existingId, 3L));
+        Mockito.when(categoryRepository.getReferenceById(3L)).thenReturn(newCategory);
+
+        service.update(existingId, productDTO);
+
+        Assertions.assertEquals(2, product.getCategories().size());
+        Mockito.verify(categoryRepository, Mockito.never()).getReferenceById(existingId);
+        Mockito.verify(categoryRepository).getReferenceById(3L);
+    }
+
+    @Test
+    public void updateShouldThrowResourceNotFoundExceptionWhenCategoryDoesNotExist() {
+        productDTO.getCategories().add(new CategoryDTO(nonExistingId, "Unknown"));
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            service.update(existingId, productDTO);
+        });
+    }
+
     @Test
     public void deleteShouldThrowDataBaseExceptionWhenDependentId() {
         Assertions.assertThrows(DataBaseException.class, () -> {
@@ -0,0 +1,113 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.projections.ProductCategoryIdProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductsChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+@ExtendWith(SpringExtension.class)
+public class CategoryBitmapIndexTests {
+
+    private static final long LARGE_ID = (1L << 31) + 7;
+
+    @InjectMocks
+    private CategoryBitmapIndex index;
+
+    @Mock
+    private ProductRepository repository;
+
+    private List<ProductCategoryIdProjection> rows;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(index, "enabled", true);
+        rows = List.of(
+                new Row(1L, 2L),
+                new Row(2L, 1L),
+                new Row(2L, 3L),
+                new Row(3L, 3L),
+                new Row(LARGE_ID, 1L),
+                new Row(LARGE_ID, 3L));
+        Mockito.when(repository.searchProductCategoryIds()).thenReturn(rows);
+    }
+
+    @Test
+    public void resolveShouldUniteCategoriesWhenMatchAny() {
+        index.build();
+
+        Assertions.assertEquals(List.of(1L, 2L, LARGE_ID), CategoryBitmapIndex.toIds(index.resolve(List.of(1L, 2L), false)));
+    }
+
+    @Test
+    public void resolveShouldIntersectCategoriesWhenMatchAll() {
+        index.build();
+
+        Assertions.assertEquals(List.of(2L, LARGE_ID), CategoryBitmapIndex.toIds(index.resolve(List.of(1L, 3L), true)));
+        Assertions.assertTrue(index.resolve(List.of(2L, 3L), true).isEmpty());
+    }
+
+    @Test
+    public void resolveShouldReturnEmptyForUnknownCategory() {
+        index.build();
+
+        Assertions.assertTrue(index.resolve(List.of(99L), false).isEmpty());
+    }
+
+    @Test
+    public void onProductChangedShouldMoveProductBetweenCategories() {
+        index.build();
+
+        index.onProductChanged(new ProductChangedEvent(LARGE_ID, "PC Gamer", Set.of(2L), Set.of(1L, 3L)));
+
+        Assertions.assertEquals(List.of(2L), CategoryBitmapIndex.toIds(index.resolve(List.of(1L), false)));
+        Assertions.assertEquals(List.of(1L, LARGE_ID), CategoryBitmapIndex.toIds(index.resolve(List.of(2L), false)));
+    }
+
+    @Test
+    public void onProductsChangedShouldRemoveDeletedProducts() {
+        index.build();
+
+        index.onProductsChanged(new ProductsChangedEvent(List.of(ProductChangedEvent.deleted(2L, Set.of(1L, 3L)))));
+
+        Assertions.assertEquals(List.of(3L, LARGE_ID), CategoryBitmapIndex.toIds(index.resolve(List.of(1L, 3L), false)));
+    }
+
+    @Test
+    public void changesCommittedDuringBuildShouldBeAppliedAfterLoad() {
+        Mockito.when(repository.searchProductCategoryIds()).thenAnswer(invocation -> {
+            Assertions.assertFalse(index.isReady());
+            index.onProductChanged(new ProductChangedEvent(4L, "Notebook", Set.of(1L), Set.of()));
+            return rows;
+        });
+
+        index.build();
+
+        Assertions.assertTrue(index.isReady());
+        Assertions.assertEquals(List.of(2L, 4L, LARGE_ID), CategoryBitmapIndex.toIds(index.resolve(List.of(1L), false)));
+    }
+
+    private record Row(Long productId, Long categoryId) implements ProductCategoryIdProjection {
+
+        @Override
+        public Long getProductId() {
+            return productId;
+        }
+
+        @Override
+        public Long getCategoryId() {
+            return categoryId;
+        }
+    }
+}
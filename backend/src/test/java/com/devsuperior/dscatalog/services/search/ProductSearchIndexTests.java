@@ -0,0 +1,179 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.projections.ProductCategoryProjection;
+import com.devsuperior.dscatalog.projections.ProductProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductsChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@ExtendWith(SpringExtension.class)
+public class ProductSearchIndexTests {
+
+    @InjectMocks
+    private ProductSearchIndex index;
+
+    @Mock
+    private ProductRepository repository;
+
+    private List<ProductCategoryProjection> rows;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(index, "enabled", true);
+        rows = List.of(
+                new Row(1L, "The Lord of the Rings", 2L),
+                new Row(2L, "Smart TV", 1L),
+                new Row(2L, "Smart TV", 3L),
+                new Row(3L, "Macbook Pro", 3L),
+                new Row(4L, "PC Gamer", 3L),
+                new Row(5L, "PC Gamer Alfa", 3L),
+                new Row(6L, "Sem categoria", null));
+        Mockito.when(repository.searchProductNamesWithCategories()).thenReturn(rows);
+    }
+
+    @Test
+    public void searchShouldMatchTrigramsIgnoringCase() {
+        index.build();
+
+        Assertions.assertEquals(List.of(1L), ids(index.search(List.of(), false, "LORD OF", PageRequest.of(0, 10))));
+        Assertions.assertEquals(List.of(4L, 5L), ids(index.search(List.of(), false, "gamer", PageRequest.of(0, 10))));
+        Assertions.assertTrue(index.search(List.of(), false, "lordx", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    public void searchShouldUseShortGramsWhenTermIsShorterThanTrigram() {
+        index.build();
+
+        Assertions.assertEquals(List.of(3L, 4L, 5L, 2L, 1L), ids(index.search(List.of(), false, "", PageRequest.of(0, 10))));
+        Assertions.assertEquals(List.of(4L, 5L), ids(index.search(List.of(), false, "pc", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    public void searchShouldLowerCaseIndependentlyOfDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            Mockito.when(repository.searchProductNamesWithCategories()).thenReturn(List.of(new Row(7L, "IPHONE 15", 1L)));
+            index.build();
+
+            Assertions.assertEquals(List.of(7L), ids(index.search(List.of(), false, "iphone", PageRequest.of(0, 10))));
+            Assertions.assertEquals(List.of(7L), ids(index.search(List.of(), false, "PHONE", PageRequest.of(0, 10))));
+        }
+        finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    public void searchShouldPageSortedCandidatesWhenTermIsSelective() {
+        List<ProductCategoryProjection> many = new ArrayList<>(rows);
+        for (long id = 100; id < 140; id++) {
+            many.add(new Row(id, "Filler " + id, 2L));
+        }
+        Mockito.when(repository.searchProductNamesWithCategories()).thenReturn(many);
+        index.build();
+
+        Page<ProductProjection> page = index.search(List.of(), false, "pc gamer", PageRequest.of(1, 1));
+        Assertions.assertEquals(List.of(5L), ids(page));
+        Assertions.assertEquals(2, page.getTotalElements());
+
+        // Conjunto grande: percorre a ordem por nome e o total vem da cardinalidade
+        page = index.search(List.of(2L), false, "filler", PageRequest.of(3, 12));
+        Assertions.assertEquals(List.of(136L, 137L, 138L, 139L), ids(page));
+        Assertions.assertEquals(40, page.getTotalElements());
+    }
+
+    @Test
+    public void searchShouldFilterByCategories() {
+        index.build();
+
+        Assertions.assertEquals(List.of(2L), ids(index.search(List.of(1L, 3L), true, "", PageRequest.of(0, 10))));
+        Assertions.assertEquals(List.of(3L, 4L, 5L, 2L),
+                ids(index.search(List.of(1L, 3L), false, "", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    public void searchShouldReturnPageInNameOrderWithTotal() {
+        index.build();
+
+        Page<ProductProjection> page = index.search(List.of(), false, "", PageRequest.of(1, 2));
+
+        Assertions.assertEquals(List.of(5L, 2L), ids(page));
+        Assertions.assertEquals(5, page.getTotalElements());
+    }
+
+    @Test
+    public void onProductChangedShouldReindexUpdatedProduct() {
+        index.build();
+
+        index.onProductChanged(new ProductChangedEvent(1L, "The Hobbit", Set.of(1L), Set.of(2L)));
+
+        Assertions.assertTrue(index.search(List.of(), false, "lord", PageRequest.of(0, 10)).isEmpty());
+        Assertions.assertEquals(List.of(1L), ids(index.search(List.of(1L), false, "hobbit", PageRequest.of(0, 10))));
+        Assertions.assertTrue(index.search(List.of(2L), false, "", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    public void onProductsChangedShouldRemoveDeletedProducts() {
+        index.build();
+
+        index.onProductsChanged(new ProductsChangedEvent(List.of(
+                ProductChangedEvent.deleted(4L, Set.of(3L)),
+                ProductChangedEvent.deleted(5L, Set.of(3L)))));
+
+        Assertions.assertTrue(index.search(List.of(), false, "gamer", PageRequest.of(0, 10)).isEmpty());
+        Assertions.assertEquals(List.of(3L, 2L, 1L), ids(index.search(List.of(), false, "", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    public void changesCommittedDuringBuildShouldBeAppliedAfterLoad() {
+        Mockito.when(repository.searchProductNamesWithCategories()).thenAnswer(invocation -> {
+            Assertions.assertFalse(index.isReady());
+            index.onProductChanged(ProductChangedEvent.deleted(1L, Set.of(2L)));
+            return rows;
+        });
+
+        index.build();
+
+        Assertions.assertTrue(index.isReady());
+        Assertions.assertTrue(index.search(List.of(), false, "lord", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private static List<Long> ids(Page<ProductProjection> page) {
+        return page.getContent().stream().map(ProductProjection::getId).toList();
+    }
+
+    private record Row(Long id, String name, Long categoryId) implements ProductCategoryProjection {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Long getCategoryId() {
+            return categoryId;
+        }
+    }
+}
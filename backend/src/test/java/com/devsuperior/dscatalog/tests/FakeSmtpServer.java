@@ -0,0 +1,155 @@
+package com.devsuperior.dscatalog.tests;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor SMTP mínimo, em memória, para testes: aceita EHLO/MAIL/RCPT/DATA/RSET/QUIT sem autenticação,
+ * guarda as mensagens recebidas e pode recusar destinatários específicos com 550.
+ */
+public class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final List<Message> messages = new CopyOnWriteArrayList<>();
+    private final Set<String> rejectedRecipients = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public FakeSmtpServer() {
+        try {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        Thread.ofPlatform().daemon().name("fake-smtp").start(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public List<Message> getMessages() {
+        return messages;
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public void reject(String recipient) {
+        rejectedRecipients.add(recipient);
+    }
+
+    public void reset() {
+        messages.clear();
+        rejectedRecipients.clear();
+        connections.set(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread.ofPlatform().daemon().start(() -> handle(socket));
+            }
+            catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+
+            reply(out, "220 localhost ESMTP");
+            String from = null;
+            List<String> recipients = new ArrayList<>();
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                }
+                else if (command.startsWith("MAIL FROM:")) {
+                    from = address(line);
+                    recipients.clear();
+                    reply(out, "250 OK");
+                }
+                else if (command.startsWith("RCPT TO:")) {
+                    String recipient = address(line);
+                    if (rejectedRecipients.contains(recipient)) {
+                        reply(out, "550 Mailbox unavailable");
+                    }
+                    else {
+                        recipients.add(recipient);
+                        reply(out, "250 OK");
+                    }
+                }
+                else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line.startsWith("..") ? line.substring(1) : line).append('\n');
+                    }
+                    messages.add(new Message(from, List.copyOf(recipients), data.toString()));
+                    reply(out, "250 OK");
+                }
+                else if (command.equals("RSET")) {
+                    from = null;
+                    recipients.clear();
+                    reply(out, "250 OK");
+                }
+                else if (command.equals("NOOP")) {
+                    reply(out, "250 OK");
+                }
+                else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                }
+                else {
+                    reply(out, "502 Command not implemented");
+                }
+            }
+        }
+        catch (IOException e) {
+            // conexão encerrada pelo cliente
+        }
+    }
+
+    private static void reply(Writer out, String line) throws IOException {
+        out.write(line + "\r\n");
+        out.flush();
+    }
+
+    private static String address(String line) {
+        String value = line.substring(line.indexOf(':') + 1).trim();
+        int end = value.indexOf('>');
+        return value.startsWith("<") && end > 0 ? value.substring(1, end) : value;
+    }
+
+    public record Message(String from, List<String> recipients, String data) {
+    }
+}